@@ -1,26 +1,160 @@
 package cpsc2150.extendedConnectX;
 
 import cpsc2150.extendedConnectX.controllers.*;
+import cpsc2150.extendedConnectX.models.*;
 import cpsc2150.extendedConnectX.views.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
 /**
- * This class is the entry point of our program and just loads the set up screen and controller
+ * This class is the entry point of our program and just loads the set up screen and controller.
+ * Run with {@code --text [rows cols win players [computers [millis]]]} it plays in the terminal
+ * instead, reading columns from standard input and writing the game to standard output, with no
+ * window at all. computers lists the tokens of the players the computer plays, such as {@code O}
+ * or {@code OA}, and millis is how long it thinks about a move.
+ * <p>
+ * For faster launches, {@code --startup-profile} reports how long each phase of starting up
+ * takes (see {@link StartupTimer}), and {@code --cds-training archive} runs a warm-up that
+ * touches every screen, records the classes it loads and dumps them to a class data sharing
+ * archive. Later launches with {@code -XX:SharedArchiveFile=archive} map those classes in
+ * instead of loading them one by one. {@code --warmup} runs the warm-up on its own
+ * (see {@link StartupTraining}).
  *
  * @version 2.0
  */
 public class ConnectXApp {
 
+    private static final String TEXT_MODE = "--text";
+    private static final String PROFILE = "--startup-profile";
+    private static final String WARMUP = "--warmup";
+    private static final String CDS_TRAINING = "--cds-training";
+
+    //Game the text mode plays when no size is given
+    private static final int[] TEXT_DEFAULTS = {6, 7, 4, 2};
+
+    private static final String TEXT_USAGE = "Usage: ConnectXApp " + TEXT_MODE
+            + " [rows cols win players [computers [millis]]]";
+
     /**
      * <p>
      * This method is the main entry point into the program.
      * </p>
      *
      * @param args
-     *            Command-line arguments (there shouldn't be any).
+     *            Command-line arguments, none for the set up screen or {@code --text} and an
+     *            optional rows, columns, number to win and players for the text mode, followed
+     *            by an optional list of computer players and their thinking time, or
+     *            {@code --warmup} or {@code --cds-training archive}. Any of them can start
+     *            with {@code --startup-profile}.
+     *
+     * @throws IOException if the text mode can't read its input or the training can't start
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(PROFILE)) {
+            StartupTimer.start();
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+
+        if (args.length > 0 && args[0].equals(TEXT_MODE)) {
+            playText(args);
+            return;
+        }
+        if (args.length == 1 && args[0].equals(WARMUP)) {
+            StartupTraining.warmUp();
+            return;
+        }
+        if (args.length == 2 && args[0].equals(CDS_TRAINING)) {
+            StartupTraining.trainCds(args[1]);
+            return;
+        }
+
+        StartupTimer.phaseOnFirstPaint("setup first-paint");
         SetupView screen = new SetupView();
         SetupController controller = new SetupController(screen);
         screen.registerObserver(controller);
+        StartupTimer.phase("setup construction");
+    }
+
+    /**
+     * <p>
+     * This plays the game as text on standard input and output until the input ends.
+     * </p>
+     *
+     * @param args
+     *            Command-line arguments, starting with {@code --text}
+     *
+     * @post [ the game was played from standard input, or the usage was written if the
+     *       arguments are not a valid game ]
+     *
+     * @throws IOException if standard input can't be read
+     */
+    private static void playText(String[] args) throws IOException {
+        int[] game = TEXT_DEFAULTS.clone();
+        String computers = "";
+        long thinkMillis = SetupController.DEFAULT_THINK_MILLIS;
+        try {
+            if (args.length != 1 && (args.length < 1 + game.length || args.length > 3 + game.length)) {
+                throw new NumberFormatException();
+            }
+            for (int i = 1; i < args.length && i <= game.length; i++) {
+                game[i - 1] = Integer.parseInt(args[i]);
+            }
+            if (args.length > 1 + game.length) {
+                computers = args[1 + game.length];
+            }
+            if (args.length > 2 + game.length) {
+                thinkMillis = Long.parseLong(args[2 + game.length]);
+            }
+        } catch (NumberFormatException e) {
+            game = null;
+        }
+
+        if (game == null || game[0] < IGameBoard.MIN_ROWS || game[0] > IGameBoard.MAX_ROWS
+                || game[1] < IGameBoard.MIN_COLUMNS || game[1] > IGameBoard.MAX_COLUMNS
+                || game[2] < IGameBoard.MIN_NUM_TO_WIN || game[2] > IGameBoard.MAX_NUM_TO_WIN
+                || game[2] > Math.min(game[0], game[1])
+                || game[3] < IGameBoard.MIN_PLAYERS || game[3] > IGameBoard.MAX_PLAYERS
+                || thinkMillis < SetupController.MIN_THINK_MILLIS
+                || thinkMillis > SetupController.MAX_THINK_MILLIS) {
+            System.err.println(TEXT_USAGE);
+            return;
+        }
+
+        //Find the seat of every token listed, each has to be one of the players in the game
+        boolean[] seats = new boolean[game[3]];
+        for (int i = 0; i < computers.length(); i++) {
+            int seat = 0;
+            while (seat < game[3] && ConnectXController.getPlayerToken(seat) != computers.charAt(i)) {
+                seat++;
+            }
+            if (seat == game[3]) {
+                System.err.println(TEXT_USAGE);
+                System.err.println(computers.charAt(i) + " is not a player in a " + game[3] + " player game");
+                return;
+            }
+            seats[seat] = true;
+        }
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+        //Only people typing at a console need the whole board drawn every move
+        TextView view = new TextView(game[0], game[1], in, out, System.console() != null);
+        ConnectXController controller = new ConnectXController(
+                SetupController.newBoard(game[0], game[1], game[2]), view, game[3]);
+        view.registerObserver(controller);
+        SetupController.useOpeningBook(controller, game[0], game[1], game[2], game[3]);
+        for (int i = 0; i < seats.length; i++) {
+            if (seats[i]) {
+                controller.setComputerPlayer(i, SetupController.newComputerPlayer(game[3], thinkMillis));
+            }
+        }
+        StartupTimer.phase("text construction");
+        view.run();
     }
-}
\ No newline at end of file
+}
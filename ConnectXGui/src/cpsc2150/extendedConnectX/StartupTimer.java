@@ -0,0 +1,147 @@
+package cpsc2150.extendedConnectX;
+
+import java.awt.AWTEvent;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.lang.management.ManagementFactory;
+import javax.swing.SwingUtilities;
+
+/**
+ * <p>This class, StartupTimer, reports how long each phase of starting the
+ * game takes. It is off unless the program is run with
+ * {@code --startup-profile}, and then writes one line per phase to standard
+ * error: class-load, from the JVM starting to main being called, then each
+ * phase marked after it, such as building a screen and painting it for the
+ * first time.</p>
+ *
+ * <p>Phases are measured from the end of the phase before, so they add up to
+ * the total, which is also reported.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [enabled is false until start is called] AND
+ *                  [last = the time the latest phase ended] AND
+ *                  classLoadMillis = [time from the JVM starting to main]
+ */
+public final class StartupTimer {
+
+    private static volatile boolean enabled;
+    private static long classLoadMillis;
+    private static long mainNanos;
+    private static long last;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Turns the timer on and reports the class-load phase. Called first
+     * thing in main so the phase ends as close to main as possible.
+     *
+     * @post enabled = true AND [the class-load phase is reported]
+     */
+    public static synchronized void start() {
+        mainNanos = System.nanoTime();
+        long mainMillis = System.currentTimeMillis();
+        last = mainNanos;
+        enabled = true;
+
+        //Read after the clocks, loading the management classes is not part of the phase
+        classLoadMillis = mainMillis - ManagementFactory.getRuntimeMXBean().getStartTime();
+        print("class-load", classLoadMillis, classLoadMillis);
+    }
+
+    /**
+     * Returns whether phases are being reported
+     *
+     * @return enabled
+     *
+     * @post isEnabled = enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ends the phase named name now and reports it. Does nothing if the
+     * timer is off.
+     *
+     * @param name name of the phase that just ended
+     *
+     * @post [the phase is reported if enabled] AND [last = now if enabled]
+     */
+    public static synchronized void phase(String name) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long millis = (now - last) / 1000000;
+        last = now;
+        print(name, millis, classLoadMillis + (now - mainNanos) / 1000000);
+    }
+
+    /**
+     * Ends the phase named name once the next window shown has been painted
+     * for the first time, and reports it. Windows show themselves when they
+     * are built, so this is called before building one. Does nothing if the
+     * timer is off.
+     *
+     * @param name name of the phase that ends with the first paint
+     *
+     * @post [the phase is reported after the next window paint if enabled]
+     */
+    public static void phaseOnFirstPaint(String name) {
+        if (enabled) {
+            //Only loaded when profiling, so a launch without a screen loads no screen classes
+            FirstPaint.watch(name);
+        }
+    }
+
+    /**
+     * Writes one phase to standard error
+     *
+     * @param name name of the phase
+     * @param millis how long the phase took
+     * @param total time since the JVM started
+     *
+     * @post [a line for the phase is written to standard error]
+     */
+    private static void print(String name, long millis, long total) {
+        System.err.printf("startup %-20s %6d ms  (total %d ms)%n", name, millis, total);
+    }
+
+    /**
+     * Listens for the next paint event and ends a phase once it is painted
+     */
+    private static final class FirstPaint implements AWTEventListener {
+
+        private final String name;
+        private boolean seen;
+
+        private FirstPaint(String n) {
+            name = n;
+        }
+
+        /**
+         * Starts listening for the next paint event
+         *
+         * @param n name of the phase that ends with the paint
+         *
+         * @post [the phase named n is reported after the next window paint]
+         */
+        private static void watch(String n) {
+            Toolkit.getDefaultToolkit().addAWTEventListener(new FirstPaint(n), AWTEvent.PAINT_EVENT_MASK);
+        }
+
+        @Override
+        public void eventDispatched(AWTEvent event) {
+            if (seen) {
+                return;
+            }
+            seen = true;
+            Toolkit.getDefaultToolkit().removeAWTEventListener(this);
+            //Swing paints the window after the paint event, so the phase ends after that
+            SwingUtilities.invokeLater(() -> phase(name));
+        }
+    }
+}
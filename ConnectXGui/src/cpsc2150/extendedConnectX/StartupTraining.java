@@ -0,0 +1,155 @@
+package cpsc2150.extendedConnectX;
+
+import cpsc2150.extendedConnectX.controllers.*;
+import cpsc2150.extendedConnectX.views.*;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.SwingUtilities;
+
+/**
+ * <p>This class, StartupTraining, runs the warm-up and class data sharing
+ * training behind {@link ConnectXApp}'s {@code --warmup} and
+ * {@code --cds-training} options. It is its own class so a normal launch
+ * never loads it, or the screen classes it touches.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public final class StartupTraining {
+
+    //Moves for the warm-up's text game, ending in a win and a rematch
+    private static final String WARMUP_MOVES = "3\n3\n4\n4\n5\n5\n6\n0\n";
+
+    private StartupTraining() {
+    }
+
+    /**
+     * <p>
+     * This plays a short game in the text mode and, when there is a screen, builds and paints
+     * the set up and game screens, so every class a launch needs is loaded. The program exits
+     * when it is done.
+     * </p>
+     *
+     * @post [ every class a launch needs has been loaded ] AND [ the program has exited ]
+     *
+     * @throws IOException never, the text game reads from a string
+     */
+    public static void warmUp() throws IOException {
+        TextView view = new TextView(6, 7, new BufferedReader(new StringReader(WARMUP_MOVES)),
+                new PrintWriter(Writer.nullWriter()), true);
+        ConnectXController controller = new ConnectXController(SetupController.newBoard(6, 7, 4), view, 2);
+        view.registerObserver(controller);
+        view.run();
+        StartupTimer.phase("warm-up text");
+
+        if (!GraphicsEnvironment.isHeadless()) {
+            try {
+                SwingUtilities.invokeAndWait(() -> {
+                    SetupView setup = new SetupView();
+                    setup.closeScreen();
+
+                    ConnectXView game = new ConnectXView(6, 7);
+                    game.setMarker(0, 3, 'X');
+                    game.setMessage("It is O's turn.");
+                    //Paint into an image so the painting code runs without waiting for the screen
+                    BufferedImage image = new BufferedImage(
+                            Math.max(1, game.getWidth()), Math.max(1, game.getHeight()), BufferedImage.TYPE_INT_RGB);
+                    game.paint(image.createGraphics());
+                    game.dispose();
+                });
+            } catch (InterruptedException | InvocationTargetException e) {
+                System.err.println("Warm-up of the screens failed: " + e);
+            }
+            StartupTimer.phase("warm-up screens");
+        }
+
+        //The event dispatch thread would keep the program running
+        System.exit(0);
+    }
+
+    /**
+     * <p>
+     * This runs the warm-up in a new JVM that records the classes it loads, then dumps those
+     * classes to a class data sharing archive in another, and prints how to launch with it.
+     * The JVM only archives application classes from jar files, so when the game runs from
+     * class folders the archive holds the JDK's classes, including all of Swing, and the
+     * game's own classes still load from the folders.
+     * </p>
+     *
+     * @param archive
+     *            File to write the archive to, the class list is written next to it
+     *
+     * @post [ archive and archive.classlist are written, or why not is written to standard error ]
+     *
+     * @throws IOException if a JVM can't be started
+     */
+    public static void trainCds(String archive) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = System.getProperty("java.class.path");
+        String classList = archive + ".classlist";
+
+        int status = launch(java, "-XX:DumpLoadedClassList=" + classList,
+                "-cp", classPath, ConnectXApp.class.getName(), "--warmup");
+        if (status != 0) {
+            System.err.println("Warm-up exited with " + status + ", no archive written");
+            return;
+        }
+
+        List<String> dump = new ArrayList<>(Arrays.asList(java, "-Xshare:dump",
+                "-XX:SharedClassListFile=" + classList, "-XX:SharedArchiveFile=" + archive));
+        boolean jarsOnly = true;
+        for (String entry : classPath.split(File.pathSeparator)) {
+            jarsOnly &= !new File(entry).isDirectory();
+        }
+        if (jarsOnly) {
+            dump.add("-cp");
+            dump.add(classPath);
+        }
+        status = launch(dump.toArray(new String[0]));
+        if (status != 0) {
+            System.err.println("Dumping the archive exited with " + status);
+            return;
+        }
+
+        System.out.println("Wrote " + archive + (jarsOnly ? "" : " (JDK classes only, the game runs from folders)"));
+        System.out.println("Launch with: java -XX:SharedArchiveFile=" + archive
+                + " -cp " + classPath + " " + ConnectXApp.class.getName());
+    }
+
+    /**
+     * <p>
+     * This runs a command with this program's input and output and waits for it.
+     * </p>
+     *
+     * @param command
+     *            The program and its arguments
+     *
+     * @return the command's exit status, -1 if the wait was interrupted
+     *
+     * @post [ the command has finished, or was stopped if the wait was interrupted ]
+     *
+     * @throws IOException if the command can't be started
+     */
+    private static int launch(String... command) throws IOException {
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        try {
+            return process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+            return -1;
+        }
+    }
+}
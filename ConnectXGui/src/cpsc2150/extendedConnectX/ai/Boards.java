@@ -0,0 +1,69 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+/**
+ * <p>This class, Boards, holds the board helpers the engines share. Copies
+ * let searches running on other threads keep a board of their own. A copy
+ * is a {@link GameBoardBit} when the whole board fits in one long and a
+ * {@link GameBoard} otherwise, since those are the fastest for each size, no
+ * matter what kind of board it was made from. It has the same hash as the
+ * original because the hash does not depend on the order the tokens were
+ * placed in.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+final class Boards {
+
+    private Boards() {
+    }
+
+    /**
+     * Returns a new board with the same size, number to win and tokens as board
+     *
+     * @param board position to copy
+     *
+     * @return copy of board
+     *
+     * @post board = #board AND [copyOf has the same tokens, dimensions and hash as board]
+     */
+    static IGameBoard copyOf(IGameBoard board) {
+        int rows = board.getNumRows();
+        int cols = board.getNumColumns();
+        IGameBoard copy;
+        if ((rows + 1) * cols <= Long.SIZE) {
+            copy = new GameBoardBit(rows, cols, board.getNumToWin());
+        }
+        else {
+            copy = new GameBoard(rows, cols, board.getNumToWin());
+        }
+        for (int c = 0; c < cols; c++) {
+            int height = board.getColumnHeight(c);
+            for (int r = 0; r < height; r++) {
+                copy.placeToken(board.whatsAtPos(r, c), c);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Returns true if player p would win by placing a token in column c
+     *
+     * @param board position to check
+     * @param p player character
+     * @param c column to try
+     *
+     * @return true iff [placing p in c gives p num_to_win in a row]
+     *
+     * @pre board.checkIfFree(c)
+     *
+     * @post board = #board
+     */
+    static boolean winsAt(IGameBoard board, char p, int c) {
+        board.placeToken(p, c);
+        boolean win = board.checkForWin(c);
+        board.removeToken(c);
+        return win;
+    }
+}
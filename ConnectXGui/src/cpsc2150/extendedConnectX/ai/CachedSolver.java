@@ -0,0 +1,89 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * <p>This class, CachedSolver, plays perfectly on small boards by solving
+ * every position it is asked about to the end of the game with a
+ * {@link NegamaxEngine}, and keeps what it proves in a {@link SolverCache}.
+ * A position solved once, in this run or an earlier one, is answered from
+ * the cache with no search. Several solvers on different threads may share
+ * one cache.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public class CachedSolver implements ISearchEngine {
+
+    private final SolverCache cache;
+    private final NegamaxEngine engine;
+
+    /**
+     * Constructor creates a solver that keeps its results in c
+     *
+     * @param c cache for the boards this solver will be given
+     *
+     * @post cache = c AND [the engine's table is empty]
+     */
+    public CachedSolver(SolverCache c) {
+        cache = c;
+        //Every search is given its depth, so the engine's own depth is never used
+        engine = new NegamaxEngine(1);
+    }
+
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn) {
+        long start = System.nanoTime();
+        int cells = board.getNumRows() * board.getNumColumns();
+        int tokens = board.getNumTokens();
+        long key = board.getCanonicalHash();
+
+        //Columns are cached for the canonical side, so one entry covers the mirror image too
+        long value = cache.get(key);
+        if (value != 0 && board.checkIfFree(board.canonicalColumn(SolverCache.column(value)))) {
+            int column = board.canonicalColumn(SolverCache.column(value));
+            int score = toScore(SolverCache.outcome(value), SolverCache.distance(value), cells, tokens);
+            return new SearchResult(column, score, cells - tokens, 0, System.nanoTime() - start);
+        }
+
+        SearchResult result = engine.search(board, players, numPlayers, turn, cells - tokens);
+        if (!engine.isStopped()) {
+            int score = result.getScore();
+            int outcome = score > 0 ? SolverCache.WIN : score < 0 ? SolverCache.LOSS : SolverCache.DRAW;
+            //A win or loss is worth cells + 1 - [tokens on the board after the last move]
+            int distance = score == 0 ? cells - tokens : cells + 1 - Math.abs(score) - tokens;
+            try {
+                cache.put(key, outcome, distance, board.canonicalColumn(result.getColumn()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return result;
+    }
+
+    public void stop() {
+        engine.stop();
+    }
+
+    /**
+     * Returns the engine's score for a cached result
+     *
+     * @param outcome WIN, LOSS or DRAW
+     * @param distance number of moves until the game ends
+     * @param cells number of cells on the board
+     * @param tokens number of tokens on the board now
+     *
+     * @return score NegamaxEngine gives the same result
+     *
+     * @post toScore = [0 for a draw, otherwise plus or minus (cells + 1 - tokens - distance)]
+     */
+    private static int toScore(int outcome, int distance, int cells, int tokens) {
+        if (outcome == SolverCache.DRAW) {
+            return 0;
+        }
+        int score = cells + 1 - tokens - distance;
+        return outcome == SolverCache.WIN ? score : -score;
+    }
+}
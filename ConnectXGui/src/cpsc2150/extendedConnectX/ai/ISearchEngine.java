@@ -0,0 +1,66 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+/**
+ * <p>ISearchEngine picks a column for a computer player. Engines keep what
+ * they learn between searches, so one engine should be used for one game
+ * at a time.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public interface ISearchEngine {
+
+    /**
+     * Searches the position on board for the player in seat turn
+     *
+     * @param board position to search
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player to move
+     *
+     * @return best column found, its score and the search statistics
+     *
+     * @pre [board has a free column and no winner] AND
+     *      0 {@code <=} turn {@code <} numPlayers {@code <=} players.length
+     *
+     * @post board = #board AND search = [a free column for players[turn]]
+     */
+    SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn);
+
+    /**
+     * Asks a search running on another thread to give up as soon as it can.
+     * The result of the abandoned search should be ignored.
+     *
+     * @post [the running search, if any, returns soon]
+     */
+    void stop();
+
+    /**
+     * Lets the engine think about the position on board while another player
+     * decides, so its next search can finish sooner. The engine must copy
+     * anything it needs from board before returning. The default does nothing.
+     *
+     * @param board position the other player is deciding on
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player deciding
+     *
+     * @pre [board has a free column and no winner] AND
+     *      0 {@code <=} turn {@code <} numPlayers {@code <=} players.length
+     *
+     * @post board = #board
+     */
+    default void ponder(IGameBoard board, char[] players, int numPlayers, int turn) {
+    }
+
+    /**
+     * Stops any thread the engine started, pondering included. The engine
+     * can't search after this. The default does nothing.
+     *
+     * @post [no thread of the engine is running or waiting for work]
+     */
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,93 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+/**
+ * <p>This class, IterativeDeepeningEngine, searches with a
+ * {@link NegamaxEngine} one move deeper at a time until its time for the
+ * move runs out, then plays the best column of the deepest search that
+ * finished. Each search leaves its results in the table, so the next one
+ * tries the best moves first and the shallow searches cost little.</p>
+ *
+ * <p>It stops early once a search finds a forced win or loss, or reaches the
+ * end of the game, since searching deeper can't change the answer.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      budgetNanos {@code >} 0
+ */
+public class IterativeDeepeningEngine implements ISearchEngine {
+
+    private final long budgetNanos;
+    private final NegamaxEngine engine;
+
+    /**
+     * Constructor creates an engine that thinks for millis milliseconds a
+     * move with a table of the default size
+     *
+     * @param millis time to spend on each move in milliseconds
+     *
+     * @pre millis {@code >} 0
+     *
+     * @post budgetNanos = millis * 1000000 AND [the table is empty]
+     */
+    public IterativeDeepeningEngine(long millis) {
+        this(millis, NegamaxEngine.DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructor creates an engine that thinks for millis milliseconds a
+     * move with a table of 2^bits slots
+     *
+     * @param millis time to spend on each move in milliseconds
+     * @param bits log base 2 of the number of table slots
+     *
+     * @pre millis {@code >} 0 AND 1 {@code <=} bits {@code <=} 30
+     *
+     * @post budgetNanos = millis * 1000000 AND [the table is empty]
+     */
+    public IterativeDeepeningEngine(long millis, int bits) {
+        budgetNanos = millis * 1000000;
+        //The depth is given to each search, so the engine's own depth is never used
+        engine = new NegamaxEngine(1, bits);
+    }
+
+    /**
+     * Returns the time this engine spends on each move
+     *
+     * @return budgetNanos / 1000000
+     *
+     * @post getBudgetMillis = budgetNanos / 1000000
+     */
+    public long getBudgetMillis() {
+        return budgetNanos / 1000000;
+    }
+
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn) {
+        long start = System.nanoTime();
+        long startNodes = engine.getNodes();
+        int left = board.getNumRows() * board.getNumColumns() - board.getNumTokens();
+
+        //Depth 1 always finishes so there is a move to play even with no time left
+        SearchResult best = engine.search(board, players, numPlayers, turn, 1);
+        engine.setDeadline(start + budgetNanos);
+        try {
+            for (int d = 2; d <= left && best.getScore() == 0 && !engine.isStopped(); d++) {
+                SearchResult result = engine.run(board, players, numPlayers, turn, d);
+                if (!engine.isStopped()) {
+                    best = result;
+                }
+            }
+        } finally {
+            engine.setDeadline(0);
+        }
+
+        return new SearchResult(best.getColumn(), best.getScore(), best.getDepth(),
+                engine.getNodes() - startNodes, System.nanoTime() - start);
+    }
+
+    public void stop() {
+        engine.stop();
+    }
+}
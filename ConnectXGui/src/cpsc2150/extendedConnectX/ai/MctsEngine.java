@@ -0,0 +1,520 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>This class, MctsEngine, picks a column with Monte Carlo tree search.
+ * It plays random games from the position and grows a tree toward the
+ * columns that have done best so far (UCT). Every node keeps one total
+ * reward per player and each player picks the child that is best for
+ * itself (max^n), so it works for any number of players, unlike
+ * {@link NegamaxEngine} which treats every opponent as one side.</p>
+ *
+ * <p>A winner gets a reward of 1 and the others 0; a tie gives every
+ * player 1 / numPlayers. The search runs until its time budget is used up.
+ * Each thread grows its own tree on its own copy of the board and the visit
+ * counts of the root columns are added up at the end (root parallelism).
+ * The score of a result is the average reward of its column for the player
+ * to move, as a percentage.</p>
+ *
+ * <p>Random games rarely find a win that is one move away when there are
+ * many columns, so before searching the engine takes a win if it has one
+ * and blocks the next player if that player has exactly one.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      budgetNanos {@code >} 0 AND numThreads {@code >=} 1 AND playouts {@code >=} 0
+ */
+public class MctsEngine implements ISearchEngine {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 1000;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    //Game results other than a winner's seat
+    private static final int ONGOING = -1;
+    private static final int TIE = -2;
+
+    private final long budgetNanos;
+    private final int numThreads;
+    private final ExecutorService helpers;
+    private final SplittableRandom random;
+
+    private long playouts;
+    private volatile boolean stopped;
+
+    /**
+     * Constructor creates an engine that thinks for millis milliseconds a
+     * move on threads threads
+     *
+     * @param millis time to spend on each move in milliseconds
+     * @param threads number of threads to search with
+     *
+     * @pre millis {@code >} 0 AND threads {@code >=} 1
+     *
+     * @post budgetNanos = millis * 1000000 AND numThreads = threads AND playouts = 0
+     */
+    public MctsEngine(long millis, int threads) {
+        this(millis, threads, System.nanoTime());
+    }
+
+    /**
+     * Constructor creates an engine that thinks for millis milliseconds a
+     * move on threads threads, with random games that follow from seed
+     *
+     * @param millis time to spend on each move in milliseconds
+     * @param threads number of threads to search with
+     * @param seed seed for the random games
+     *
+     * @pre millis {@code >} 0 AND threads {@code >=} 1
+     *
+     * @post budgetNanos = millis * 1000000 AND numThreads = threads AND playouts = 0
+     */
+    public MctsEngine(long millis, int threads, long seed) {
+        budgetNanos = millis * 1000000;
+        numThreads = threads;
+        random = new SplittableRandom(seed);
+
+        if (threads > 1) {
+            helpers = Executors.newFixedThreadPool(threads - 1, r -> {
+                Thread t = new Thread(r, "mcts-helper");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        else {
+            helpers = null;
+        }
+    }
+
+    /**
+     * Returns the time this engine spends on each move
+     *
+     * @return budgetNanos / 1000000
+     *
+     * @post getBudgetMillis = budgetNanos / 1000000
+     */
+    public long getBudgetMillis() {
+        return budgetNanos / 1000000;
+    }
+
+    /**
+     * Returns the number of threads this engine searches with
+     *
+     * @return numThreads
+     *
+     * @post getNumThreads = numThreads
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Returns the number of random games played since the engine was created
+     *
+     * @return playouts
+     *
+     * @post getPlayouts = playouts
+     */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn) {
+        stopped = false;
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+
+        int forced = forcedColumn(board, players[turn], players[(turn + 1) % numPlayers]);
+        if (forced >= 0) {
+            int score = Boards.winsAt(board, players[turn], forced) ? 100 : 0;
+            return new SearchResult(forced, score, 1, 0, System.nanoTime() - start);
+        }
+
+        Tree[] trees = new Tree[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            trees[i] = new Tree(board, players, numPlayers, turn, random.split());
+        }
+
+        Future<?>[] running = new Future<?>[numThreads];
+        for (int i = 1; i < numThreads; i++) {
+            Tree helper = trees[i];
+            IGameBoard copy = Boards.copyOf(board);
+            running[i] = helpers.submit(() -> helper.grow(copy, deadline));
+        }
+        //The caller's board is never played on, so it can be read while the engine thinks
+        trees[0].grow(Boards.copyOf(board), deadline);
+        for (int i = 1; i < numThreads; i++) {
+            waitFor(running[i]);
+        }
+
+        //Add up the root columns of every tree and play the most visited one
+        int cols = board.getNumColumns();
+        long[] visits = new long[cols];
+        double[] rewards = new double[cols];
+        long games = 0;
+        int depth = 0;
+        for (Tree tree : trees) {
+            games += tree.games;
+            depth = Math.max(depth, tree.deepest);
+            Node root = tree.root;
+            for (int i = 0; i < root.numChildren; i++) {
+                Node child = root.children[i];
+                visits[child.column] += child.visits;
+                rewards[child.column] += child.rewards[turn];
+            }
+        }
+        playouts += games;
+
+        int best = -1;
+        for (int c = 0; c < cols; c++) {
+            if (board.checkIfFree(c) && (best < 0 || visits[c] > visits[best])) {
+                best = c;
+            }
+        }
+        int score = visits[best] == 0 ? 0 : (int) Math.round(100 * rewards[best] / visits[best]);
+        return new SearchResult(best, score, depth, games, System.nanoTime() - start);
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Stops the helper threads. The engine can't search after this.
+     *
+     * @post [every helper thread has been told to end]
+     */
+    @Override
+    public void shutdown() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the column p wins in, otherwise the only column next wins in
+     *
+     * @param board position to check
+     * @param p player to move
+     * @param next player who moves after p
+     *
+     * @return a winning column for p, else next's winning column if next has
+     *         exactly one, else -1
+     *
+     * @post board = #board
+     */
+    private static int forcedColumn(IGameBoard board, char p, char next) {
+        int block = -1;
+        int threats = 0;
+        for (int c = 0; c < board.getNumColumns(); c++) {
+            if (!board.checkIfFree(c)) {
+                continue;
+            }
+            if (Boards.winsAt(board, p, c)) {
+                return c;
+            }
+            if (Boards.winsAt(board, next, c)) {
+                block = c;
+                threats++;
+            }
+        }
+        return threats == 1 ? block : -1;
+    }
+
+    /**
+     * Waits for a helper's search to end
+     *
+     * @param helper search running on a helper thread
+     *
+     * @post [helper is done]
+     */
+    private static void waitFor(Future<?> helper) {
+        try {
+            helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+
+    /**
+     * <p>One position in a search tree. Its children are the positions one
+     * move later that have been tried, and untried holds the free columns
+     * that have not been tried yet.</p>
+     *
+     * @Invariants      visits {@code >=} 0 AND rewards.length = numPlayers AND
+     *                  numChildren + numUntried = [free columns if result = ONGOING, else 0]
+     */
+    private static final class Node {
+
+        private final int column;
+        private final int mover;
+        private final int toMove;
+        private final int result;
+
+        private final Node[] children;
+        private final int[] untried;
+        private int numChildren;
+        private int numUntried;
+
+        private int visits;
+        private final double[] rewards;
+
+        /**
+         * Constructor creates a node for the position on board, reached when
+         * seat mover played column col
+         *
+         * @param board position of the node
+         * @param col column just played, -1 for the root
+         * @param who seat that played col
+         * @param next seat to move in this position
+         * @param res winner's seat, TIE or ONGOING
+         * @param numPlayers number of players in the game
+         *
+         * @post [untried = every free column of board if res = ONGOING, otherwise none] AND
+         *       visits = 0 AND [every reward is 0]
+         */
+        private Node(IGameBoard board, int col, int who, int next, int res, int numPlayers) {
+            column = col;
+            mover = who;
+            toMove = next;
+            result = res;
+            rewards = new double[numPlayers];
+
+            int cols = board.getNumColumns();
+            untried = new int[res == ONGOING ? cols : 0];
+            for (int c = 0; c < untried.length; c++) {
+                if (board.checkIfFree(c)) {
+                    untried[numUntried++] = c;
+                }
+            }
+            children = new Node[numUntried];
+        }
+
+        /**
+         * Returns the child with the best balance of reward for the player
+         * to move and how rarely it has been tried
+         *
+         * @return child with the highest UCT value for seat toMove
+         *
+         * @pre numChildren {@code >} 0 AND [every child has been visited]
+         *
+         * @post self = #self
+         */
+        private Node bestChild() {
+            double logVisits = Math.log(visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < numChildren; i++) {
+                Node child = children[i];
+                double value = child.rewards[toMove] / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * <p>The tree one thread grows and the state it needs to do so.</p>
+     *
+     * @Invariants      games {@code >=} 0 AND deepest {@code >=} 0
+     */
+    private final class Tree {
+
+        private final char[] players;
+        private final int numPlayers;
+        private final SplittableRandom random;
+        private final Node root;
+
+        private final Node[] path;
+        private final int[] moves;
+        private final int[] free;
+        private int numMoves;
+
+        private long games;
+        private int deepest;
+
+        /**
+         * Constructor creates a tree with only the root for the position on board
+         *
+         * @param board position to search
+         * @param p player characters in turn order
+         * @param n number of players in the game
+         * @param turn seat of the player to move
+         * @param r random numbers for this tree
+         *
+         * @post [root is the position on board with turn to move] AND games = 0
+         */
+        private Tree(IGameBoard board, char[] p, int n, int turn, SplittableRandom r) {
+            players = p;
+            numPlayers = n;
+            random = r;
+            root = new Node(board, -1, -1, turn, ONGOING, n);
+
+            int left = board.getNumRows() * board.getNumColumns() - board.getNumTokens();
+            path = new Node[left + 1];
+            moves = new int[left];
+            free = new int[board.getNumColumns()];
+        }
+
+        /**
+         * Plays random games from the root on board until deadline or stop
+         *
+         * @param board this thread's copy of the root position
+         * @param deadline value of System.nanoTime to stop at
+         *
+         * @post board = #board AND [root has grown by one node per game]
+         */
+        private void grow(IGameBoard board, long deadline) {
+            //Always finish one game so the root has a column to suggest
+            do {
+                playOnce(board);
+                games++;
+            } while (!stopped && System.nanoTime() < deadline);
+        }
+
+        /**
+         * Walks down the tree, adds one node, plays a random game from it and
+         * adds its result to every node on the way down
+         *
+         * @param board this thread's copy of the root position
+         *
+         * @post board = #board AND [one more visit on every node of the walked path]
+         */
+        private void playOnce(IGameBoard board) {
+            numMoves = 0;
+            int length = 0;
+            Node node = root;
+            path[length++] = node;
+
+            //Follow the best children until a node still has untried columns
+            while (node.result == ONGOING && node.numUntried == 0) {
+                node = node.bestChild();
+                board.placeToken(players[node.mover], node.column);
+                moves[numMoves++] = node.column;
+                path[length++] = node;
+            }
+
+            if (node.result == ONGOING) {
+                int pick = random.nextInt(node.numUntried);
+                int c = node.untried[pick];
+                node.untried[pick] = node.untried[--node.numUntried];
+
+                int seat = node.toMove;
+                board.placeToken(players[seat], c);
+                moves[numMoves++] = c;
+                Node child = new Node(board, c, seat, next(seat), outcome(board, c, seat), numPlayers);
+                node.children[node.numChildren++] = child;
+                node = child;
+                path[length++] = node;
+            }
+            deepest = Math.max(deepest, length - 1);
+
+            int winner = node.result;
+            if (winner == ONGOING) {
+                winner = playout(board, node.toMove);
+            }
+
+            for (int i = 0; i < length; i++) {
+                Node n = path[i];
+                n.visits++;
+                if (winner == TIE) {
+                    for (int s = 0; s < numPlayers; s++) {
+                        n.rewards[s] += 1.0 / numPlayers;
+                    }
+                }
+                else {
+                    n.rewards[winner] += 1;
+                }
+            }
+
+            while (numMoves > 0) {
+                board.removeToken(moves[--numMoves]);
+            }
+        }
+
+        /**
+         * Plays random moves from the position on board until someone wins or
+         * the board is full, recording the columns in moves
+         *
+         * @param board position to play from
+         * @param seat seat of the player to move
+         *
+         * @return the winner's seat or TIE
+         *
+         * @pre [board has a free column and no winner]
+         *
+         * @post [board has the random moves on it, listed after #numMoves in moves]
+         */
+        private int playout(IGameBoard board, int seat) {
+            int numFree = 0;
+            for (int c = 0; c < free.length; c++) {
+                if (board.checkIfFree(c)) {
+                    free[numFree++] = c;
+                }
+            }
+
+            int result = TIE;
+            while (numFree > 0) {
+                int pick = random.nextInt(numFree);
+                int c = free[pick];
+                board.placeToken(players[seat], c);
+                moves[numMoves++] = c;
+                if (board.checkForWin(c)) {
+                    result = seat;
+                    break;
+                }
+                if (!board.checkIfFree(c)) {
+                    free[pick] = free[--numFree];
+                }
+                seat = next(seat);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the result of the game after seat played column c
+         *
+         * @param board position after the move
+         * @param c column just played
+         * @param seat seat that played c
+         *
+         * @return seat if it won, TIE if the board is full, otherwise ONGOING
+         *
+         * @post board = #board
+         */
+        private int outcome(IGameBoard board, int c, int seat) {
+            if (board.checkForWin(c)) {
+                return seat;
+            }
+            return board.checkTie() ? TIE : ONGOING;
+        }
+
+        /**
+         * Returns the seat that moves after seat
+         *
+         * @param seat current seat
+         *
+         * @return (seat + 1) mod numPlayers
+         *
+         * @post next = (seat + 1) mod numPlayers
+         */
+        private int next(int seat) {
+            return seat + 1 == numPlayers ? 0 : seat + 1;
+        }
+    }
+}
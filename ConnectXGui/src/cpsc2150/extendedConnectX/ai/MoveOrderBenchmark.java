@@ -0,0 +1,76 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+/**
+ * <p>This class, MoveOrderBenchmark, searches a fixed set of positions with
+ * every combination of killer moves and history scores in
+ * {@link MoveOrderer} and prints the nodes each one needs, how many that
+ * saves next to plain center-out order, and the orderer's cutoff counts.
+ * Every run starts with an empty table.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public class MoveOrderBenchmark {
+
+    private static final char[] PLAYERS = {'X', 'O'};
+    private static final int TABLE_BITS = 22;
+
+    //Rows, columns, number to win, depth (0 to solve) and the moves played so far
+    private static final int[][] POSITIONS = {
+            {5, 5, 4, 0},
+            {5, 6, 4, 0, 2, 3},
+            {6, 20, 4, 10, 9, 10, 10, 9},
+            {10, 30, 5, 8, 15, 14, 16, 15, 14, 16, 17},
+            {8, 100, 5, 5, 50, 49, 51, 50, 48, 52}
+    };
+
+    //Killers, then history, for each way of ordering
+    private static final boolean[][] SETTINGS = {
+            {false, false},
+            {true, false},
+            {false, true},
+            {true, true}
+    };
+
+    private MoveOrderBenchmark() {
+    }
+
+    /**
+     * Searches every position with every ordering and prints the results
+     *
+     * @param args not used
+     *
+     * @post [a line with the nodes, time and cutoff counts is printed for every
+     *       position and ordering]
+     */
+    public static void main(String[] args) {
+        for (int[] position : POSITIONS) {
+            IGameBoard board = new GameBoardBit(position[0], position[1], position[2]);
+            for (int i = 4; i < position.length; i++) {
+                board.placeToken(PLAYERS[(i - 4) % PLAYERS.length], position[i]);
+            }
+            int depth = position[3] == 0 ? board.getNumRows() * board.getNumColumns() : position[3];
+            int turn = board.getNumTokens() % PLAYERS.length;
+            System.out.println();
+            System.out.println(board.getNumRows() + "x" + board.getNumColumns() + ", "
+                    + board.getNumToWin() + " to win, " + board.getNumTokens() + " tokens, "
+                    + (position[3] == 0 ? "solved" : "depth " + depth));
+
+            long plain = 0;
+            for (boolean[] setting : SETTINGS) {
+                MoveOrderer orderer = new MoveOrderer(setting[0], setting[1]);
+                NegamaxEngine engine = new NegamaxEngine(depth, TABLE_BITS, orderer);
+                SearchResult result = engine.search(board, PLAYERS, PLAYERS.length, turn);
+                if (plain == 0) {
+                    plain = result.getNodes();
+                }
+                System.out.printf("  killers %-5b history %-5b: column %d, score %d, %,d nodes (%+.1f%%), %.1f ms%n",
+                        setting[0], setting[1], result.getColumn(), result.getScore(), result.getNodes(),
+                        100.0 * (result.getNodes() - plain) / plain, result.getNanos() / 1e6);
+                System.out.println("    " + orderer);
+            }
+        }
+    }
+}
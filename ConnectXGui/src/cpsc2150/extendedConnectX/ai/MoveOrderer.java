@@ -0,0 +1,333 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+/**
+ * <p>This class, MoveOrderer, decides which columns a search tries first.
+ * Alpha-beta only prunes once a good move has been found, so trying the
+ * best column first matters more than anything else on wide boards.</p>
+ *
+ * <p>If the next player could win somewhere, only the columns that block
+ * are tried. Otherwise the order is: the move the transposition table
+ * remembers, the killer moves (the last two columns that caused a cutoff
+ * at the same ply, since sibling positions tend to have the same good
+ * move), then the rest by their history score (how much cutoffs in that
+ * column by that player have saved so far), breaking ties from the
+ * center out.</p>
+ *
+ * <p>Killers and history are off unless asked for. On the positions in
+ * {@link MoveOrderBenchmark} they make solving to the end of the game many
+ * times slower, because Connect X positions one column apart rarely share
+ * a refutation and center-out is already a strong order, and on wide
+ * boards searched to a fixed depth they help some positions and hurt
+ * others.</p>
+ *
+ * <p>It also counts how often the columns it orders cause a cutoff, and
+ * how many columns are tried before one does.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [center lists every column from the center out] AND
+ *                  [killers[ply] holds -1 or columns] AND [every history score {@code >=} 0] AND
+ *                  cutoffs {@code <=} ordered AND firstCutoffs {@code <=} cutoffs
+ */
+public class MoveOrderer {
+
+    private static final int KILLERS = 2;
+
+    private final boolean useKillers;
+    private final boolean useHistory;
+
+    private int numColumns;
+    private int[] center = new int[0];
+    private int[][] killers = new int[0][];
+    private final long[][] history = new long[IGameBoard.MAX_PLAYERS][0];
+
+    private int threats;
+
+    private long ordered;
+    private long cutoffs;
+    private long firstCutoffs;
+    private long triedBeforeCutoff;
+
+    /**
+     * Constructor creates an orderer that only uses the table's move,
+     * blocks and center-out order
+     *
+     * @post useKillers = false AND useHistory = false AND [every count is 0]
+     */
+    public MoveOrderer() {
+        this(false, false);
+    }
+
+    /**
+     * Constructor creates an orderer that uses the given kinds of ordering
+     *
+     * @param killers whether to try killer moves early
+     * @param hist whether to sort the other columns by history score
+     *
+     * @post useKillers = killers AND useHistory = hist AND [every count is 0]
+     */
+    public MoveOrderer(boolean killers, boolean hist) {
+        useKillers = killers;
+        useHistory = hist;
+    }
+
+    /**
+     * Sets up for boards of a new size, forgetting every killer and history score
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     *
+     * @post numColumns = cols AND [center lists every column from the center out] AND
+     *       [killers has one row per ply up to rows * cols, all -1] AND [history is all 0]
+     */
+    public void prepare(int rows, int cols) {
+        numColumns = cols;
+        center = new int[cols];
+        //Even widths have two center columns; the left one goes first
+        int n = 0;
+        int left = (cols - 1) / 2;
+        int right = left + 1;
+        while (left >= 0 || right < cols) {
+            if (left >= 0) {
+                center[n++] = left--;
+            }
+            if (right < cols) {
+                center[n++] = right++;
+            }
+        }
+
+        killers = new int[rows * cols + 1][KILLERS];
+        for (int[] ply : killers) {
+            ply[0] = -1;
+            ply[1] = -1;
+        }
+        for (int i = 0; i < history.length; i++) {
+            history[i] = new long[cols];
+        }
+    }
+
+    /**
+     * Makes old history scores count for less, so a new search follows what
+     * it learns about the new position
+     *
+     * @post [every history score is half what it was]
+     */
+    public void age() {
+        for (long[] scores : history) {
+            for (int c = 0; c < scores.length; c++) {
+                scores[c] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Returns a column player p wins in right away
+     *
+     * @param board position to check
+     * @param p player to move
+     *
+     * @return the lowest winning column, -1 if there is none
+     *
+     * @post board = #board
+     */
+    public int findWin(IGameBoard board, char p) {
+        for (int c = 0; c < numColumns; c++) {
+            if (board.checkIfFree(c) && Boards.winsAt(board, p, c)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the columns to try, best first, into out
+     *
+     * @param board position to order the moves of
+     * @param seat seat of the player to move
+     * @param next character of the player who moves after
+     * @param ply number of moves made since the root
+     * @param hashMove column the table remembers, -1 for none
+     * @param out where to write the columns
+     *
+     * @return number of columns written
+     *
+     * @pre [board has a free column] AND out.length {@code >=} numColumns AND
+     *      0 {@code <=} ply {@code <=} rows * cols
+     *
+     * @post board = #board AND threats = [number of columns next could win in] AND
+     *       [out holds those columns if threats {@code >} 0, otherwise every free column]
+     */
+    public int order(IGameBoard board, int seat, char next, int ply, int hashMove, int[] out) {
+        ordered++;
+
+        //A column the next player wins in has to be blocked, so nothing else is worth trying
+        threats = 0;
+        for (int c = 0; c < numColumns; c++) {
+            if (board.checkIfFree(c) && Boards.winsAt(board, next, c)) {
+                out[threats++] = c;
+            }
+        }
+        if (threats > 0) {
+            return threats;
+        }
+
+        int n = 0;
+        if (hashMove >= 0 && board.checkIfFree(hashMove)) {
+            out[n++] = hashMove;
+        }
+        int early = n;
+        if (useKillers) {
+            for (int k : killers[ply]) {
+                if (k >= 0 && k != hashMove && board.checkIfFree(k)) {
+                    out[n++] = k;
+                }
+            }
+            early = n;
+        }
+
+        long[] scores = history[seat];
+        for (int c : center) {
+            if (!board.checkIfFree(c) || contains(out, early, c)) {
+                continue;
+            }
+            //Insertion sort; it is stable, so equal scores stay in center-out order
+            int i = n++;
+            if (useHistory) {
+                while (i > early && scores[out[i - 1]] < scores[c]) {
+                    out[i] = out[i - 1];
+                    i--;
+                }
+            }
+            out[i] = c;
+        }
+        return n;
+    }
+
+    /**
+     * Returns how many columns the next player could win in, as found by the
+     * last call to order
+     *
+     * @return threats
+     *
+     * @post getThreats = threats
+     */
+    public int getThreats() {
+        return threats;
+    }
+
+    /**
+     * Records that column c caused a cutoff
+     *
+     * @param seat seat of the player who played c
+     * @param ply number of moves made since the root
+     * @param c column that caused the cutoff
+     * @param depth number of moves that were left to search
+     * @param tried number of columns tried before c at this position
+     *
+     * @pre 0 {@code <=} ply {@code <=} rows * cols AND depth {@code >=} 1 AND tried {@code >=} 0
+     *
+     * @post [c is the first killer at ply] AND [history of c for seat went up by depth^2] AND
+     *       cutoffs = #cutoffs + 1
+     */
+    public void cutoff(int seat, int ply, int c, int depth, int tried) {
+        cutoffs++;
+        triedBeforeCutoff += tried;
+        if (tried == 0) {
+            firstCutoffs++;
+        }
+
+        int[] slot = killers[ply];
+        if (slot[0] != c) {
+            slot[1] = slot[0];
+            slot[0] = c;
+        }
+        history[seat][c] += (long) depth * depth;
+    }
+
+    /**
+     * Returns the number of positions whose moves have been ordered
+     *
+     * @return ordered
+     *
+     * @post getOrdered = ordered
+     */
+    public long getOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Returns the number of cutoffs recorded
+     *
+     * @return cutoffs
+     *
+     * @post getCutoffs = cutoffs
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * Returns the share of cutoffs caused by the first column tried
+     *
+     * @return firstCutoffs / cutoffs, 0 if there were no cutoffs
+     *
+     * @post getFirstCutoffRate = [firstCutoffs / cutoffs, or 0 if cutoffs = 0]
+     */
+    public double getFirstCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstCutoffs / cutoffs;
+    }
+
+    /**
+     * Returns the average number of columns tried before the one that caused a cutoff
+     *
+     * @return triedBeforeCutoff / cutoffs, 0 if there were no cutoffs
+     *
+     * @post getAverageTriedBeforeCutoff = [triedBeforeCutoff / cutoffs, or 0 if cutoffs = 0]
+     */
+    public double getAverageTriedBeforeCutoff() {
+        return cutoffs == 0 ? 0 : (double) triedBeforeCutoff / cutoffs;
+    }
+
+    /**
+     * Sets every count back to 0, keeping the killers and history scores
+     *
+     * @post ordered = 0 AND cutoffs = 0 AND [the other counts are 0]
+     */
+    public void resetStats() {
+        ordered = 0;
+        cutoffs = 0;
+        firstCutoffs = 0;
+        triedBeforeCutoff = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d positions, %d cutoffs (%.1f%%), %.1f%% on the first column, "
+                        + "%.2f columns tried before a cutoff", ordered, cutoffs,
+                ordered == 0 ? 0.0 : 100.0 * cutoffs / ordered, 100 * getFirstCutoffRate(),
+                getAverageTriedBeforeCutoff());
+    }
+
+    /**
+     * Returns true if c is in the first n entries of moves
+     *
+     * @param moves columns written so far
+     * @param n number of entries to look at
+     * @param c column to look for
+     *
+     * @return true iff c is in moves[0 through n - 1]
+     *
+     * @post contains = [c is in moves[0 through n - 1]]
+     */
+    private static boolean contains(int[] moves, int n, int c) {
+        for (int i = 0; i < n; i++) {
+            if (moves[i] == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,542 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+/**
+ * <p>This class, NegamaxEngine, picks a column for a computer player with an
+ * alpha-beta negamax search on any {@link IGameBoard}. Moves are made and taken
+ * back with placeToken and removeToken, so the board is never copied, and
+ * results are kept in a {@link TranspositionTable} keyed by the board's hash.
+ * Columns are tried in the order a {@link MoveOrderer} picks.</p>
+ *
+ * <p>Scores are from the point of view of the player to move: a win is worth
+ * more the fewer tokens are on the board when it happens, a loss is the
+ * negative of that, and draws or positions past the search depth are 0.
+ * Negating the score every move only works when every other move is the
+ * opponent's, so the engine only plays two player games; with more players
+ * the player two seats on would count as an ally. {@link MctsEngine} plays
+ * games with more players.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      maxDepth {@code >=} 1 AND nodes {@code >=} 0
+ */
+public class NegamaxEngine implements ISearchEngine {
+
+    public static final int DEFAULT_DEPTH = 10;
+    public static final int DEFAULT_TABLE_BITS = 20;
+
+    //The only number of players the scores are right for
+    public static final int NUM_PLAYERS = 2;
+
+    private static final int INFINITY = Short.MAX_VALUE;
+
+    //Keeps the same tokens with a different player to move apart in the table
+    private static final long[] TURN_KEYS = new long[IGameBoard.MAX_PLAYERS];
+
+    static {
+        long z = 0x5EED5EEDL;
+        for (int i = 0; i < TURN_KEYS.length; i++) {
+            z += 0x9E3779B97F4A7C15L;
+            long k = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            k = (k ^ (k >>> 27)) * 0x94D049BB133111EBL;
+            TURN_KEYS[i] = k ^ (k >>> 31);
+        }
+    }
+
+    private final int maxDepth;
+    private final TranspositionTable table;
+    private final boolean ownsTable;
+    private final int rootShift;
+    private final MoveOrderer orderer;
+
+    private int[][] moves = new int[0][];
+    private int tableRows;
+    private int tableColumns;
+    private int tableToWin;
+
+    private long nodes;
+    private int rootMove;
+    private volatile boolean stopped;
+    private long deadline;
+
+    /**
+     * Constructor creates an engine that searches d moves ahead with a
+     * table of the default size
+     *
+     * @param d number of moves to search ahead
+     *
+     * @pre d {@code >=} 1
+     *
+     * @post maxDepth = d AND [the table is empty]
+     */
+    public NegamaxEngine(int d) {
+        this(d, DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructor creates an engine that searches d moves ahead with a
+     * table of 2^bits slots
+     *
+     * @param d number of moves to search ahead
+     * @param bits log base 2 of the number of table slots
+     *
+     * @pre d {@code >=} 1 AND 1 {@code <=} bits {@code <=} 30
+     *
+     * @post maxDepth = d AND [the table is empty]
+     */
+    public NegamaxEngine(int d, int bits) {
+        this(d, bits, new MoveOrderer());
+    }
+
+    /**
+     * Constructor creates an engine that searches d moves ahead with a
+     * table of 2^bits slots, trying moves in the order o picks
+     *
+     * @param d number of moves to search ahead
+     * @param bits log base 2 of the number of table slots
+     * @param o move orderer used by this engine only
+     *
+     * @pre d {@code >=} 1 AND 1 {@code <=} bits {@code <=} 30
+     *
+     * @post maxDepth = d AND orderer = o AND [the table is empty]
+     */
+    public NegamaxEngine(int d, int bits, MoveOrderer o) {
+        maxDepth = d;
+        table = new TranspositionTable(bits);
+        ownsTable = true;
+        rootShift = 0;
+        orderer = o;
+    }
+
+    /**
+     * Constructor creates an engine that searches d moves ahead with a table
+     * it shares with other engines. The owner of t is responsible for
+     * clearing it. The root columns are tried starting shift places later in
+     * the move order, so engines searching the same position together
+     * start in different parts of the tree.
+     *
+     * @param d number of moves to search ahead
+     * @param t table shared with other engines
+     * @param shift number of places to rotate the root column order by
+     *
+     * @pre d {@code >=} 1 AND shift {@code >=} 0
+     *
+     * @post maxDepth = d AND table = t
+     */
+    NegamaxEngine(int d, TranspositionTable t, int shift) {
+        maxDepth = d;
+        table = t;
+        ownsTable = false;
+        rootShift = shift;
+        orderer = new MoveOrderer();
+    }
+
+    /**
+     * Returns how many moves ahead this engine searches
+     *
+     * @return maxDepth
+     *
+     * @post getMaxDepth = maxDepth
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the move orderer, with its cutoff counts
+     *
+     * @return orderer
+     *
+     * @post getOrderer = orderer
+     */
+    public MoveOrderer getOrderer() {
+        return orderer;
+    }
+
+    /**
+     * Returns the number of positions visited since the engine was created
+     *
+     * @return nodes
+     *
+     * @post getNodes = nodes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Asks a search running on another thread to give up as soon as it can.
+     * The abandoned search returns a result that should be ignored and
+     * stores nothing in the table.
+     *
+     * @post stopped = true
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Lets searches run again after a call to stop without starting one
+     *
+     * @post stopped = false
+     */
+    void resume() {
+        stopped = false;
+    }
+
+    /**
+     * Makes searches stop on their own once System.nanoTime passes time, as
+     * if stop had been called then
+     *
+     * @param time value of System.nanoTime to stop at, or 0 for no limit
+     *
+     * @post deadline = time
+     */
+    void setDeadline(long time) {
+        deadline = time;
+    }
+
+    /**
+     * Returns true if stop has been called or the deadline has passed since
+     * the last search started
+     *
+     * @return stopped
+     *
+     * @post isStopped = stopped
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Searches the position on board for the player in seat turn
+     *
+     * @param board position to search
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player to move
+     *
+     * @return best column, its score and the search statistics
+     *
+     * @pre [board has a free column and no winner] AND
+     *      0 {@code <=} turn {@code <} numPlayers {@code <=} players.length
+     *
+     * @post board = #board AND search = [best column for players[turn] within maxDepth moves]
+     *
+     * @throws IllegalArgumentException if numPlayers is not NUM_PLAYERS
+     */
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn) {
+        return search(board, players, numPlayers, turn, maxDepth);
+    }
+
+    /**
+     * Searches the position on board for the player in seat turn, depth moves ahead
+     *
+     * @param board position to search
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player to move
+     * @param depth number of moves to search ahead
+     *
+     * @return best column, its score and the search statistics
+     *
+     * @pre [board has a free column and no winner] AND depth {@code >=} 1 AND
+     *      0 {@code <=} turn {@code <} numPlayers {@code <=} players.length
+     *
+     * @post board = #board AND search = [best column for players[turn] within depth moves]
+     *
+     * @throws IllegalArgumentException if numPlayers is not NUM_PLAYERS
+     */
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn, int depth) {
+        stopped = false;
+        return run(board, players, numPlayers, turn, depth);
+    }
+
+    /**
+     * Searches the position on board like search, but returns at once if stop
+     * was called before it started
+     *
+     * @param board position to search
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player to move
+     * @param depth number of moves to search ahead
+     *
+     * @return best column, its score and the search statistics
+     *
+     * @pre [board has a free column and no winner] AND depth {@code >=} 1 AND
+     *      0 {@code <=} turn {@code <} numPlayers {@code <=} players.length
+     *
+     * @post board = #board AND run = [best column for players[turn] within
+     *       min(depth, empty cells) moves, or meaningless if stopped]
+     *
+     * @throws IllegalArgumentException if numPlayers is not NUM_PLAYERS
+     */
+    SearchResult run(IGameBoard board, char[] players, int numPlayers, int turn, int depth) {
+        checkPlayers(numPlayers);
+        prepare(board);
+        orderer.age();
+
+        long startNodes = nodes;
+        long start = System.nanoTime();
+        rootMove = -1;
+        int score;
+        int cells = board.getNumRows() * board.getNumColumns();
+        int left = cells - board.getNumTokens();
+        //Searching past the end of the game finds nothing more than solving it
+        depth = Math.min(depth, left);
+        if (depth < left) {
+            score = negamax(board, players, numPlayers, turn, depth, -INFINITY, INFINITY, 0);
+        }
+        else {
+            score = solve(board, players, numPlayers, turn, depth, left);
+        }
+        for (int c = 0; rootMove < 0 && c < board.getNumColumns(); c++) {
+            if (board.checkIfFree(c)) {
+                rootMove = c;
+            }
+        }
+
+        return new SearchResult(rootMove, score, depth, nodes - startNodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Checks that a game has the number of players the scores are right for
+     *
+     * @param numPlayers number of players in the game
+     *
+     * @post [nothing changes if numPlayers = NUM_PLAYERS]
+     *
+     * @throws IllegalArgumentException if numPlayers is not NUM_PLAYERS
+     */
+    static void checkPlayers(int numPlayers) {
+        if (numPlayers != NUM_PLAYERS) {
+            throw new IllegalArgumentException("Negamax only plays " + NUM_PLAYERS + " player games, not "
+                    + numPlayers);
+        }
+    }
+
+    /**
+     * Finds the exact score of a position searched to the end of the game by
+     * narrowing the range the score can be in with null window searches. Each
+     * one only has to prove the score is above or below a single value, which
+     * prunes far more than one search with the full window.
+     *
+     * @param board position to search
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player to move
+     * @param depth number of moves to search ahead
+     * @param left number of empty cells on board
+     *
+     * @return exact score of the position
+     *
+     * @pre [board has a free column and no winner] AND depth {@code >=} left
+     *
+     * @post board = #board AND rootMove = [a column that gets the exact score]
+     */
+    private int solve(IGameBoard board, char[] players, int numPlayers, int turn, int depth, int left) {
+        int min = -left;
+        int max = left;
+        int move = -1;
+        while (min < max && !stopped) {
+            //Probe near 0 first; most positions are decided by who wins, not how soon
+            int mid = min + (max - min) / 2;
+            if (mid <= 0 && min / 2 < mid) {
+                mid = min / 2;
+            }
+            else if (mid >= 0 && max / 2 > mid) {
+                mid = max / 2;
+            }
+
+            rootMove = -1;
+            int score = negamax(board, players, numPlayers, turn, depth, mid, mid + 1, 0);
+            if (score <= mid) {
+                max = score;
+                if (move < 0) {
+                    move = rootMove;
+                }
+            }
+            else {
+                min = score;
+                move = rootMove;
+            }
+        }
+        rootMove = move;
+        return min;
+    }
+
+    /**
+     * Scores the position for the player in seat turn with alpha-beta pruning
+     *
+     * @param board position to search
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player to move
+     * @param depth number of moves left to search
+     * @param alpha score the player to move is already sure of
+     * @param beta score the opponent is already sure of
+     * @param ply number of moves made since the root
+     *
+     * @return score of the position, exact if it falls between alpha and beta
+     *
+     * @pre [board has a free column and no winner] AND depth {@code >=} 1 AND alpha {@code <} beta
+     *
+     * @post board = #board AND [rootMove = best column if ply = 0]
+     */
+    private int negamax(IGameBoard board, char[] players, int numPlayers, int turn,
+                        int depth, int alpha, int beta, int ply) {
+        nodes++;
+        //Reading the clock is slow, so only do it every 1024 positions
+        if (deadline != 0 && (nodes & 0x3FF) == 0 && System.nanoTime() - deadline > 0) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        char p = players[turn];
+        int next = turn + 1 == numPlayers ? 0 : turn + 1;
+        int cols = board.getNumColumns();
+        int cells = board.getNumRows() * cols;
+        int tokens = board.getNumTokens();
+
+        //Nothing beats winning with this token, so look for that first
+        int win = orderer.findWin(board, p);
+        if (win >= 0) {
+            if (ply == 0) {
+                rootMove = win;
+            }
+            return cells - tokens;
+        }
+
+        //Otherwise the best is a win on its next turn, or a draw if the board fills first
+        int most = Math.max(0, cells - tokens - numPlayers);
+        if (beta > most && ply > 0) {
+            beta = most;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        //A position and its mirror image share one entry, with the move stored for the canonical side
+        long key = board.getCanonicalHash() ^ TURN_KEYS[turn];
+        long entry = table.probe(key);
+        int tableMove = -1;
+        if (TranspositionTable.flag(entry) != TranspositionTable.NONE) {
+            tableMove = TranspositionTable.move(entry);
+            if (tableMove >= 0) {
+                tableMove = board.canonicalColumn(tableMove);
+            }
+            if (TranspositionTable.depth(entry) >= depth && ply > 0) {
+                int stored = TranspositionTable.score(entry);
+                int flag = TranspositionTable.flag(entry);
+                if (flag == TranspositionTable.EXACT) {
+                    return stored;
+                }
+                else if (flag == TranspositionTable.LOWER) {
+                    alpha = Math.max(alpha, stored);
+                }
+                else {
+                    beta = Math.min(beta, stored);
+                }
+                if (alpha >= beta) {
+                    return stored;
+                }
+            }
+        }
+
+        if (moves[ply] == null) {
+            moves[ply] = new int[cols];
+        }
+        int[] order = moves[ply];
+        int n = orderer.order(board, turn, players[next], ply, tableMove, order);
+        if (orderer.getThreats() > 1) {
+            //The next player could win in two places and only one can be blocked
+            if (ply == 0) {
+                rootMove = order[0];
+            }
+            return -(cells - tokens - 1);
+        }
+
+        int startAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = -1;
+
+        int shift = ply == 0 ? rootShift : 0;
+        for (int i = 0; i < n && alpha < beta; i++) {
+            int c = order[(i + shift) % n];
+            board.placeToken(p, c);
+            int score;
+            if (board.checkTie() || depth == 1) {
+                score = 0;
+            }
+            else {
+                score = -negamax(board, players, numPlayers, next, depth - 1, -beta, -alpha, ply + 1);
+            }
+            board.removeToken(c);
+
+            if (score > best) {
+                best = score;
+                bestMove = c;
+                if (ply == 0) {
+                    rootMove = c;
+                }
+            }
+            alpha = Math.max(alpha, best);
+            if (alpha >= beta) {
+                orderer.cutoff(turn, ply, c, depth, i);
+            }
+        }
+
+        if (stopped) {
+            //Scores under a stopped search are not real, so keep them out of the table
+            return 0;
+        }
+
+        int flag;
+        if (best <= startAlpha) {
+            flag = TranspositionTable.UPPER;
+        }
+        else if (best >= beta) {
+            flag = TranspositionTable.LOWER;
+        }
+        else {
+            flag = TranspositionTable.EXACT;
+        }
+        //Recording a shallower depth than was searched is safe, it only makes the entry used less
+        table.store(key, best, Math.min(depth, TranspositionTable.MAX_DEPTH), flag,
+                bestMove < 0 ? -1 : board.canonicalColumn(bestMove));
+        return best;
+    }
+
+    /**
+     * Sets up the move lists and orderer for board and empties the table if
+     * board has a different size or number to win than the last board searched
+     *
+     * @param board position about to be searched
+     *
+     * @post [moves has one list per ply of board] AND [orderer is set up for board] AND
+     *       [table is empty if this engine owns it and board's size or
+     *       number to win changed]
+     */
+    private void prepare(IGameBoard board) {
+        int rows = board.getNumRows();
+        int cols = board.getNumColumns();
+        int win = board.getNumToWin();
+        if (rows == tableRows && cols == tableColumns && win == tableToWin) {
+            return;
+        }
+        if (ownsTable) {
+            table.clear();
+        }
+        tableRows = rows;
+        tableColumns = cols;
+        tableToWin = win;
+
+        moves = new int[rows * cols + 1][];
+        orderer.prepare(rows, cols);
+    }
+}
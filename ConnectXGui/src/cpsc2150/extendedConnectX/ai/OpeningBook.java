@@ -0,0 +1,227 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>This class, OpeningBook, looks up the best column for early positions
+ * in a file made ahead of time by {@link OpeningBookBuilder}. The file is
+ * mapped into memory read only and searched in place, so opening a book
+ * costs nothing however big it is and a lookup copies nothing.</p>
+ *
+ * <p>A book starts with a header: MAGIC, VERSION, then the rows, columns,
+ * number to win and number of players it was made for and how many
+ * records follow. Each record is a position's canonical hash, its score,
+ * the column to play in the canonical position and how deep the search
+ * that found it went, so a position and its mirror image share a record.
+ * Records are sorted by hash so a lookup is a binary search. The player to move isn't stored,
+ * since it follows from the number of tokens on the board.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [records are sorted by hash with no hash repeated] AND
+ *                  buffer.capacity() = HEADER_BYTES + numRecords * RECORD_BYTES
+ */
+public class OpeningBook {
+
+    public static final int MAGIC = 0x43584F42;
+    public static final int VERSION = 2;
+
+    static final int HEADER_BYTES = 7 * Integer.BYTES;
+    static final int RECORD_BYTES = Long.BYTES + Short.BYTES + 2 * Byte.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int numRows;
+    private final int numColumns;
+    private final int numToWin;
+    private final int numPlayers;
+    private final int numRecords;
+
+    /**
+     * Constructor reads the header of a book already in buffer
+     *
+     * @param b whole book file
+     *
+     * @pre [b holds a valid header]
+     *
+     * @post buffer = b AND [numRows, numColumns, numToWin, numPlayers and numRecords
+     *       are read from the header]
+     */
+    private OpeningBook(ByteBuffer b) {
+        buffer = b;
+        numRows = b.getInt(2 * Integer.BYTES);
+        numColumns = b.getInt(3 * Integer.BYTES);
+        numToWin = b.getInt(4 * Integer.BYTES);
+        numPlayers = b.getInt(5 * Integer.BYTES);
+        numRecords = b.getInt(6 * Integer.BYTES);
+    }
+
+    /**
+     * Maps the book in file into memory
+     *
+     * @param file book made by OpeningBookBuilder
+     *
+     * @return the book in file
+     *
+     * @post open = [the book in file, read in place]
+     *
+     * @throws IOException if file can't be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            //The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not an opening book");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException(file + " is book version " + buffer.getInt(Integer.BYTES)
+                    + ", expected " + VERSION);
+        }
+        OpeningBook book = new OpeningBook(buffer);
+        if (buffer.capacity() != HEADER_BYTES + (long) book.numRecords * RECORD_BYTES) {
+            throw new IOException(file + " is cut off or has extra bytes");
+        }
+        return book;
+    }
+
+    /**
+     * Returns the usual file name for a book for the given game
+     *
+     * @param r number of rows
+     * @param c number of columns
+     * @param w number in a row to win
+     * @param np number of players
+     *
+     * @return name of the form "6x7x4-2p.book"
+     *
+     * @post fileName = [r + "x" + c + "x" + w + "-" + np + "p.book"]
+     */
+    public static String fileName(int r, int c, int w, int np) {
+        return r + "x" + c + "x" + w + "-" + np + "p.book";
+    }
+
+    /**
+     * Returns the number of positions in the book
+     *
+     * @return numRecords
+     *
+     * @post getNumRecords = numRecords
+     */
+    public int getNumRecords() {
+        return numRecords;
+    }
+
+    /**
+     * Returns true if the book was made for games like the one on board
+     *
+     * @param board game to check
+     * @param np number of players in the game
+     *
+     * @return true iff [board's size and number to win and np match the header]
+     *
+     * @post board = #board
+     */
+    public boolean matches(IGameBoard board, int np) {
+        return board.getNumRows() == numRows && board.getNumColumns() == numColumns
+                && board.getNumToWin() == numToWin && np == numPlayers;
+    }
+
+    /**
+     * Returns the book's column for the position on board
+     *
+     * @param board position to look up
+     * @param np number of players in the game
+     *
+     * @return column to play, -1 if the position isn't in the book
+     *
+     * @post board = #board AND [suggest is a free column of board or -1]
+     */
+    public int suggest(IGameBoard board, int np) {
+        int i = find(board, np);
+        if (i < 0) {
+            return -1;
+        }
+        int column = board.canonicalColumn(buffer.get(recordAt(i) + Long.BYTES + Short.BYTES));
+        return board.checkIfFree(column) ? column : -1;
+    }
+
+    /**
+     * Returns the book's column, score and search depth for the position on board
+     *
+     * @param board position to look up
+     * @param np number of players in the game
+     *
+     * @return the stored result with no nodes or time, null if the position isn't in the book
+     *
+     * @post board = #board
+     */
+    public SearchResult lookup(IGameBoard board, int np) {
+        int column = suggest(board, np);
+        if (column < 0) {
+            return null;
+        }
+        int record = recordAt(find(board, np));
+        int score = buffer.getShort(record + Long.BYTES);
+        int depth = buffer.get(record + Long.BYTES + Short.BYTES + 1) & 0xFF;
+        return new SearchResult(column, score, depth, 0, 0);
+    }
+
+    /**
+     * Returns the index of the record for the position on board
+     *
+     * @param board position to look up
+     * @param np number of players in the game
+     *
+     * @return index of the record with board's canonical hash, -1 if there is none
+     *
+     * @post board = #board
+     */
+    private int find(IGameBoard board, int np) {
+        if (!matches(board, np)) {
+            return -1;
+        }
+        long key = board.getCanonicalHash();
+        int low = 0;
+        int high = numRecords - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long found = buffer.getLong(recordAt(mid));
+            if (found < key) {
+                low = mid + 1;
+            }
+            else if (found > key) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the byte offset of record i
+     *
+     * @param i record index
+     *
+     * @return HEADER_BYTES + i * RECORD_BYTES
+     *
+     * @pre 0 {@code <=} i {@code <} numRecords
+     *
+     * @post recordAt = HEADER_BYTES + i * RECORD_BYTES
+     */
+    private static int recordAt(int i) {
+        return HEADER_BYTES + i * RECORD_BYTES;
+    }
+}
@@ -0,0 +1,177 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>This class, OpeningBookBuilder, makes the file an {@link OpeningBook}
+ * reads. It visits every position reachable in the first few moves of a
+ * game, skipping mirror images of positions already visited, searches
+ * each one with an {@link IterativeDeepeningEngine} for a fixed time, and
+ * writes the results sorted by hash. It is meant to be run
+ * once per board size, ahead of time. Books are only built for two player
+ * games, the only games the engine scores right.</p>
+ *
+ * <pre>
+ * java cpsc2150.extendedConnectX.ai.OpeningBookBuilder rows cols win players plies millis [file]
+ * </pre>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      plies {@code >=} 0 AND [entries holds one result per position searched]
+ */
+public class OpeningBookBuilder {
+
+    private static final char[] PLAYERS = {'X', 'O', 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+
+    //One engine searches every position, so a big table lets later positions reuse earlier work
+    private static final int TABLE_BITS = 22;
+
+    private final IGameBoard board;
+    private final int numPlayers;
+    private final int plies;
+    private final IterativeDeepeningEngine engine;
+    private final Map<Long, SearchResult> entries = new TreeMap<>();
+
+    /**
+     * Constructor creates a builder for the first p moves of games on empty
+     * boards like b, searching each position for millis milliseconds
+     *
+     * @param b empty board of the size to build the book for
+     * @param np number of players
+     * @param p number of moves into the game to cover
+     * @param millis time to search each position for
+     *
+     * @pre [b is empty] AND p {@code >=} 0 AND millis {@code >} 0
+     *
+     * @post board = b AND numPlayers = np AND plies = p AND entries = []
+     *
+     * @throws IllegalArgumentException if np is not NegamaxEngine.NUM_PLAYERS
+     */
+    public OpeningBookBuilder(IGameBoard b, int np, int p, long millis) {
+        NegamaxEngine.checkPlayers(np);
+        board = b;
+        numPlayers = np;
+        plies = p;
+        engine = new IterativeDeepeningEngine(millis, TABLE_BITS);
+    }
+
+    /**
+     * Builds a book from the command line arguments and writes it out
+     *
+     * @param args rows, columns, number to win, players, plies, milliseconds per
+     *             position and, optionally, the file to write
+     *
+     * @post [the book is written to the file, by default OpeningBook.fileName(...)]
+     *
+     * @throws IOException if the book can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 6) {
+            System.err.println("Usage: OpeningBookBuilder rows cols win players plies millis [file]");
+            return;
+        }
+        int rows = Integer.parseInt(args[0]);
+        int cols = Integer.parseInt(args[1]);
+        int win = Integer.parseInt(args[2]);
+        int np = Integer.parseInt(args[3]);
+        int p = Integer.parseInt(args[4]);
+        long millis = Long.parseLong(args[5]);
+        if (np != NegamaxEngine.NUM_PLAYERS) {
+            System.err.println("Books can only be built for " + NegamaxEngine.NUM_PLAYERS + " players");
+            return;
+        }
+        Path file = Paths.get(args.length > 6 ? args[6] : OpeningBook.fileName(rows, cols, win, np));
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(new GameBoardBit(rows, cols, win), np, p, millis);
+        long start = System.nanoTime();
+        builder.build();
+        builder.write(file);
+        System.out.printf("Wrote %d positions to %s in %.1f s%n",
+                builder.entries.size(), file, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Searches every position reachable in plies moves or fewer
+     *
+     * @post [entries has a result for every position of board that is reachable
+     *       in plies moves or fewer and is not over] AND board = #board
+     */
+    public void build() {
+        visit(0);
+    }
+
+    /**
+     * Writes the book to file in the format OpeningBook reads
+     *
+     * @param file where to write the book
+     *
+     * @post [file holds a header and the entries sorted by hash]
+     *
+     * @throws IOException if file can't be written
+     */
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(board.getNumRows());
+            out.writeInt(board.getNumColumns());
+            out.writeInt(board.getNumToWin());
+            out.writeInt(numPlayers);
+            out.writeInt(entries.size());
+
+            //A TreeMap iterates its keys in the same signed order the book searches in
+            for (Map.Entry<Long, SearchResult> entry : entries.entrySet()) {
+                SearchResult result = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeShort(result.getScore());
+                out.writeByte(result.getColumn());
+                out.writeByte(Math.min(result.getDepth(), 0xFF));
+            }
+        }
+    }
+
+    /**
+     * Searches the position on board and every position after it up to plies moves in
+     *
+     * @param ply number of moves made so far
+     *
+     * @pre [the game on board is not over]
+     *
+     * @post board = #board AND [entries has every position after board up to plies moves in]
+     */
+    private void visit(int ply) {
+        long key = board.getCanonicalHash();
+        if (entries.containsKey(key)) {
+            //Reached already by the same moves in another order, or by their mirror image
+            return;
+        }
+        int turn = ply % numPlayers;
+        SearchResult result = engine.search(board, PLAYERS, numPlayers, turn);
+        entries.put(key, new SearchResult(board.canonicalColumn(result.getColumn()), result.getScore(),
+                result.getDepth(), result.getNodes(), result.getNanos()));
+        if (ply == plies) {
+            return;
+        }
+
+        for (int c = 0; c < board.getNumColumns(); c++) {
+            if (!board.checkIfFree(c)) {
+                continue;
+            }
+            board.placeToken(PLAYERS[turn], c);
+            if (!board.checkForWin(c) && !board.checkTie()) {
+                visit(ply + 1);
+            }
+            board.removeToken(c);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>This class, ParallelSolver, searches a position on several threads at
+ * once in the Lazy SMP style. Every thread runs its own
+ * {@link NegamaxEngine} on its own copy of the board, and all of them share
+ * one {@link TranspositionTable}. The helper threads start on different root
+ * columns, so the results they leave in the table let the main thread skip
+ * most of the tree. The answer is always the main thread's, so it is the
+ * same column and score a single engine would give.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      numThreads {@code >=} 1 AND engines.length = numThreads
+ */
+public class ParallelSolver implements ISearchEngine {
+
+    private final int numThreads;
+    private final TranspositionTable table;
+    private final NegamaxEngine[] engines;
+    private final ExecutorService helpers;
+
+    private int tableRows;
+    private int tableColumns;
+    private int tableToWin;
+
+    /**
+     * Constructor creates a solver that uses threads threads, searches d moves
+     * ahead and shares a table of the default size
+     *
+     * @param threads number of threads to search with
+     * @param d number of moves to search ahead
+     *
+     * @pre threads {@code >=} 1 AND d {@code >=} 1
+     *
+     * @post numThreads = threads AND [every engine searches d moves ahead]
+     */
+    public ParallelSolver(int threads, int d) {
+        this(threads, d, NegamaxEngine.DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructor creates a solver that uses threads threads, searches d moves
+     * ahead and shares a table of 2^bits slots
+     *
+     * @param threads number of threads to search with
+     * @param d number of moves to search ahead
+     * @param bits log base 2 of the number of table slots
+     *
+     * @pre threads {@code >=} 1 AND d {@code >=} 1 AND 1 {@code <=} bits {@code <=} 30
+     *
+     * @post numThreads = threads AND [every engine searches d moves ahead] AND
+     *       [the table is empty]
+     */
+    public ParallelSolver(int threads, int d, int bits) {
+        numThreads = threads;
+        table = new TranspositionTable(bits);
+        engines = new NegamaxEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new NegamaxEngine(d, table, i);
+        }
+
+        if (threads > 1) {
+            helpers = Executors.newFixedThreadPool(threads - 1, r -> {
+                Thread t = new Thread(r, "solver-helper");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        else {
+            helpers = null;
+        }
+    }
+
+    /**
+     * Returns the number of threads this solver searches with
+     *
+     * @return numThreads
+     *
+     * @post getNumThreads = numThreads
+     */
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    /**
+     * Returns how many moves ahead this solver searches
+     *
+     * @return number of moves searched ahead
+     *
+     * @post getMaxDepth = [maxDepth of every engine]
+     */
+    public int getMaxDepth() {
+        return engines[0].getMaxDepth();
+    }
+
+    /**
+     * Searches the position on board for the player in seat turn on every thread
+     *
+     * @param board position to search
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player to move
+     *
+     * @return best column and score from the main thread, with the nodes of every thread
+     *
+     * @pre [board has a free column and no winner] AND
+     *      0 {@code <=} turn {@code <} numPlayers {@code <=} players.length
+     *
+     * @post board = #board AND search = [best column for players[turn] within maxDepth moves]
+     *
+     * @throws IllegalArgumentException if numPlayers is not NegamaxEngine.NUM_PLAYERS
+     */
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn) {
+        //Checked before the helpers start, so none of them fails on its own thread
+        NegamaxEngine.checkPlayers(numPlayers);
+        prepare(board);
+
+        long start = System.nanoTime();
+        long startNodes = 0;
+        for (NegamaxEngine engine : engines) {
+            startNodes += engine.getNodes();
+            engine.resume();
+        }
+
+        int depth = getMaxDepth();
+        Future<?>[] running = new Future<?>[numThreads];
+        for (int i = 1; i < numThreads; i++) {
+            NegamaxEngine helper = engines[i];
+            IGameBoard copy = Boards.copyOf(board);
+            running[i] = helpers.submit(() -> helper.run(copy, players, numPlayers, turn, depth));
+        }
+
+        SearchResult main = engines[0].run(board, players, numPlayers, turn, depth);
+
+        //Helpers only exist to fill the table; once the main thread is done they can stop
+        for (int i = 1; i < numThreads; i++) {
+            engines[i].stop();
+        }
+        for (int i = 1; i < numThreads; i++) {
+            waitFor(running[i]);
+        }
+
+        long totalNodes = -startNodes;
+        for (NegamaxEngine engine : engines) {
+            totalNodes += engine.getNodes();
+        }
+        return new SearchResult(main.getColumn(), main.getScore(), main.getDepth(),
+                totalNodes, System.nanoTime() - start);
+    }
+
+    public void stop() {
+        for (NegamaxEngine engine : engines) {
+            engine.stop();
+        }
+    }
+
+    /**
+     * Stops the helper threads. The solver can't search after this.
+     *
+     * @post [every helper thread has been told to end]
+     */
+    @Override
+    public void shutdown() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Empties the shared table if board has a different size or number to
+     * win than the last board searched
+     *
+     * @param board position about to be searched
+     *
+     * @post [table is empty if board's size or number to win changed]
+     */
+    private void prepare(IGameBoard board) {
+        int rows = board.getNumRows();
+        int cols = board.getNumColumns();
+        int win = board.getNumToWin();
+        if (rows == tableRows && cols == tableColumns && win == tableToWin) {
+            return;
+        }
+        table.clear();
+        tableRows = rows;
+        tableColumns = cols;
+        tableToWin = win;
+    }
+
+    /**
+     * Waits for a helper's search to end
+     *
+     * @param helper search running on a helper thread
+     *
+     * @post [helper is done]
+     */
+    private static void waitFor(Future<?> helper) {
+        try {
+            helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Solver helper failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>This class, PonderingEngine, is an {@link IterativeDeepeningEngine}
+ * that keeps thinking while the other players decide. When ponder is
+ * called it first guesses the reply it expects, then searches the position
+ * after each reply, the guess first, on a thread of its own. When the real
+ * search comes, pondering stops. If the reply that was played had already
+ * been searched in full, that answer is played at once. Otherwise the
+ * search starts with a table full of what pondering learned.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [every entry of pondered is the full search of the position with its hash]
+ */
+public class PonderingEngine implements ISearchEngine {
+
+    private final IterativeDeepeningEngine engine;
+    private final ExecutorService ponderer;
+    private final Map<Long, SearchResult> pondered = new ConcurrentHashMap<>();
+
+    private Future<?> pondering;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor creates an engine that thinks for millis milliseconds a
+     * move, and as long as it is allowed to between moves
+     *
+     * @param millis time to spend on each move in milliseconds
+     *
+     * @pre millis {@code >} 0
+     *
+     * @post [engine thinks for millis milliseconds a move] AND pondered = []
+     */
+    public PonderingEngine(long millis) {
+        this(millis, NegamaxEngine.DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructor creates an engine that thinks for millis milliseconds a
+     * move, and as long as it is allowed to between moves, with a table of
+     * 2^bits slots
+     *
+     * @param millis time to spend on each move in milliseconds
+     * @param bits log base 2 of the number of table slots
+     *
+     * @pre millis {@code >} 0 AND 1 {@code <=} bits {@code <=} 30
+     *
+     * @post [engine thinks for millis milliseconds a move] AND pondered = []
+     */
+    public PonderingEngine(long millis, int bits) {
+        engine = new IterativeDeepeningEngine(millis, bits);
+        ponderer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ponderer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn) {
+        long start = System.nanoTime();
+        stopPondering();
+
+        SearchResult known = pondered.get(board.getZobristHash());
+        if (known != null && board.checkIfFree(known.getColumn())) {
+            return new SearchResult(known.getColumn(), known.getScore(), known.getDepth(),
+                    0, System.nanoTime() - start);
+        }
+        return engine.search(board, players, numPlayers, turn);
+    }
+
+    public void stop() {
+        cancelled = true;
+        engine.stop();
+    }
+
+    @Override
+    public synchronized void ponder(IGameBoard board, char[] players, int numPlayers, int turn) {
+        stopPondering();
+        pondered.clear();
+        cancelled = false;
+
+        IGameBoard copy = Boards.copyOf(board);
+        pondering = ponderer.submit(() -> ponderReplies(copy, players, numPlayers, turn));
+    }
+
+    /**
+     * Stops pondering and ends the pondering thread. The engine can't search
+     * or ponder after this.
+     *
+     * @post [nothing is pondering] AND [the pondering thread has been told to end] AND
+     *       pondered = []
+     */
+    @Override
+    public synchronized void shutdown() {
+        stopPondering();
+        pondered.clear();
+        ponderer.shutdownNow();
+    }
+
+    /**
+     * Stops pondering and waits for the pondering thread to let go of the engine
+     *
+     * @post cancelled = true AND [nothing is pondering]
+     */
+    private synchronized void stopPondering() {
+        cancelled = true;
+        Future<?> current = pondering;
+        if (current == null) {
+            return;
+        }
+        //Keep stopping the engine until the thread is done, in case a new search started in between
+        while (!current.isDone()) {
+            engine.stop();
+            try {
+                current.get(1, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                //still winding down
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Pondering failed", e.getCause());
+            }
+        }
+        pondering = null;
+    }
+
+    /**
+     * Searches the position after each reply the player in seat turn could
+     * make, the expected one first, until cancelled
+     *
+     * @param board private copy of the position before the reply
+     * @param players player characters in turn order
+     * @param numPlayers number of players in the game
+     * @param turn seat of the player deciding
+     *
+     * @pre [board has a free column and no winner]
+     *
+     * @post board = #board AND [pondered has the full search of every position searched
+     *       before cancelled was set]
+     */
+    private void ponderReplies(IGameBoard board, char[] players, int numPlayers, int turn) {
+        int next = turn + 1 == numPlayers ? 0 : turn + 1;
+        int cols = board.getNumColumns();
+
+        //The search for the other player both guesses its reply and fills the table
+        int expected = engine.search(board, players, numPlayers, turn).getColumn();
+        for (int i = -1; i < cols && !cancelled; i++) {
+            int c = i < 0 ? expected : i;
+            if ((i >= 0 && c == expected) || !board.checkIfFree(c)) {
+                continue;
+            }
+
+            board.placeToken(players[turn], c);
+            if (!board.checkForWin(c) && !board.checkTie()) {
+                SearchResult result = engine.search(board, players, numPlayers, next);
+                if (!cancelled) {
+                    pondered.put(board.getZobristHash(), result);
+                }
+            }
+            board.removeToken(c);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+import java.util.SplittableRandom;
+
+/**
+ * <p>This class, RandomEngine, plays a random free column. It is the
+ * weakest possible opponent and a baseline for measuring the others.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public class RandomEngine implements ISearchEngine {
+
+    private final SplittableRandom random;
+
+    /**
+     * Constructor creates a random player seeded from the clock
+     *
+     * @post [random is seeded from the clock]
+     */
+    public RandomEngine() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Constructor creates a random player whose moves follow from seed
+     *
+     * @param seed seed for the moves
+     *
+     * @post [random is seeded with seed]
+     */
+    public RandomEngine(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    public SearchResult search(IGameBoard board, char[] players, int numPlayers, int turn) {
+        long start = System.nanoTime();
+        int cols = board.getNumColumns();
+
+        //Pick the k-th free column, where k is random
+        int numFree = 0;
+        for (int c = 0; c < cols; c++) {
+            if (board.checkIfFree(c)) {
+                numFree++;
+            }
+        }
+        int pick = random.nextInt(numFree);
+        int column = -1;
+        for (int c = 0; column < 0; c++) {
+            if (board.checkIfFree(c) && pick-- == 0) {
+                column = c;
+            }
+        }
+        return new SearchResult(column, 0, 0, 0, System.nanoTime() - start);
+    }
+
+    public void stop() {
+        //Picking a column never takes long enough to stop
+    }
+}
@@ -0,0 +1,119 @@
+package cpsc2150.extendedConnectX.ai;
+
+/**
+ * <p>This class, SearchResult, holds the outcome of one search: the column
+ * to play, its score and how much work it took to find it.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      nodes {@code >=} 0 AND nanos {@code >=} 0
+ */
+public class SearchResult {
+
+    private final int column;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+
+    /**
+     * Constructor for the SearchResult class. Sets every variable.
+     *
+     * @param col best column found
+     * @param s score of col for the player to move
+     * @param d depth that was searched
+     * @param n number of positions visited
+     * @param t time the search took in nanoseconds
+     *
+     * @post column = col AND score = s AND depth = d AND nodes = n AND nanos = t
+     */
+    public SearchResult(int col, int s, int d, long n, long t) {
+        column = col;
+        score = s;
+        depth = d;
+        nodes = n;
+        nanos = t;
+    }
+
+    /**
+     * Returns the best column found
+     *
+     * @return column
+     *
+     * @post getColumn = column
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the score of the best column for the player to move. Positive
+     * scores are wins, higher is sooner; negative scores are losses; 0 is a
+     * draw or a position the search could not decide.
+     *
+     * @return score
+     *
+     * @post getScore = score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the depth that was searched
+     *
+     * @return depth
+     *
+     * @post getDepth = depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of positions visited
+     *
+     * @return nodes
+     *
+     * @post getNodes = nodes
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the time the search took
+     *
+     * @return nanos
+     *
+     * @post getNanos = nanos
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns how many positions were visited per second
+     *
+     * @return nodes per second, 0 if no time was measured
+     *
+     * @post getNodesPerSecond = nodes * 10^9 / nanos
+     */
+    public double getNodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+    }
+
+    /**
+     * Overrides the toString method to create string in correct format
+     *
+     * @return String in form "column c score s depth d nodes n (nps/s)"
+     *
+     * @post toString = [String with every variable and the nodes per second]
+     */
+    @Override
+    public String toString() {
+        return "column " + column + " score " + score + " depth " + depth + " nodes " + nodes
+                + " (" + (long) getNodesPerSecond() + " nodes/s)";
+    }
+}
@@ -0,0 +1,117 @@
+package cpsc2150.extendedConnectX.ai;
+
+import cpsc2150.extendedConnectX.models.*;
+
+/**
+ * <p>This class, SolverBenchmark, times {@link ParallelSolver} on a fixed set
+ * of positions with 1, 2, 4 and 8 threads and prints how much faster each
+ * thread count is than one thread. Other thread counts can be given on the
+ * command line. Every run starts with an empty table so the runs don't help
+ * each other.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public class SolverBenchmark {
+
+    private static final int[] DEFAULT_THREADS = {1, 2, 4, 8};
+    private static final char[] PLAYERS = {'X', 'O'};
+    private static final int TABLE_BITS = 22;
+
+    //Rows, columns, number to win, depth (0 to solve) and the moves played so far
+    private static final int[][] POSITIONS = {
+            {6, 7, 4, 0, 3, 2, 3, 3, 4, 4, 3, 2, 2},
+            {5, 6, 4, 0, 2, 3},
+            {6, 20, 4, 9, 9, 10, 10, 9},
+            {8, 100, 5, 5, 50, 49, 51, 50, 48, 52}
+    };
+
+    private SolverBenchmark() {
+    }
+
+    /**
+     * Runs every position with every thread count and prints the times
+     *
+     * @param args thread counts to try, or none for 1, 2, 4 and 8
+     *
+     * @pre [every arg is a positive integer]
+     *
+     * @post [a line with the time and speedup is printed for every position and thread count]
+     */
+    public static void main(String[] args) {
+        int[] threads = DEFAULT_THREADS;
+        if (args.length > 0) {
+            threads = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threads[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.println("Cores available: " + Runtime.getRuntime().availableProcessors());
+        for (int[] position : POSITIONS) {
+            IGameBoard board = setUp(position);
+            int depth = position[3] == 0 ? board.getNumRows() * board.getNumColumns() : position[3];
+            int turn = board.getNumTokens() % PLAYERS.length;
+            System.out.println();
+            System.out.println(board.getNumRows() + "x" + board.getNumColumns() + ", "
+                    + board.getNumToWin() + " to win, " + board.getNumTokens() + " tokens, "
+                    + (position[3] == 0 ? "solved" : "depth " + depth));
+
+            //Run once untimed so the first thread count isn't paying for the JIT
+            time(board, 1, depth, turn);
+
+            long base = 0;
+            for (int t : threads) {
+                SearchResult result = time(board, t, depth, turn);
+                if (base == 0) {
+                    base = result.getNanos();
+                }
+                System.out.printf("  %2d threads: column %d, score %d, %8.1f ms, %,d nodes, speedup %.2f%n",
+                        t, result.getColumn(), result.getScore(), result.getNanos() / 1e6,
+                        result.getNodes(), (double) base / result.getNanos());
+            }
+        }
+    }
+
+    /**
+     * Searches board with a new solver that uses t threads
+     *
+     * @param board position to search
+     * @param t number of threads
+     * @param depth number of moves to search ahead
+     * @param turn seat of the player to move
+     *
+     * @return result of the search
+     *
+     * @pre t {@code >=} 1 AND depth {@code >=} 1 AND [board has a free column and no winner]
+     *
+     * @post board = #board
+     */
+    private static SearchResult time(IGameBoard board, int t, int depth, int turn) {
+        ParallelSolver solver = new ParallelSolver(t, depth, TABLE_BITS);
+        try {
+            return solver.search(board, PLAYERS, PLAYERS.length, turn);
+        } finally {
+            solver.shutdown();
+        }
+    }
+
+    /**
+     * Builds the board described by position
+     *
+     * @param position rows, columns, number to win, depth and then the columns played
+     *
+     * @return board with the moves played, X first
+     *
+     * @pre [the moves in position are legal and don't end the game]
+     *
+     * @post setUp = [board after the moves in position]
+     */
+    private static IGameBoard setUp(int[] position) {
+        IGameBoard board = new GameBoardBit(position[0], position[1], position[2]);
+        for (int i = 4; i < position.length; i++) {
+            board.placeToken(PLAYERS[(i - 4) % PLAYERS.length], position[i]);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,343 @@
+package cpsc2150.extendedConnectX.ai;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>This class, SolverCache, is a hash table of proven results kept in a
+ * memory-mapped file, so it lives outside the Java heap and is still there
+ * the next time the program runs. Each entry is a position's hash and its
+ * outcome for the player to move (WIN, LOSS or DRAW), how many moves until
+ * the game ends with best play, and the column to play.</p>
+ *
+ * <p>The table is a list of segments, each twice as big as the one before
+ * it. A key may be in any segment at one of PROBES slots picked by its
+ * hash. When every one of those slots is taken in every segment a new
+ * segment is added at the end of the file, so the table grows a little at a
+ * time and nothing already stored is ever moved.</p>
+ *
+ * <p>Any number of threads may read and write at once. A slot is claimed
+ * by compare-and-set on its key and its value is written after, so readers
+ * and writers never lock; only adding a segment takes a lock. Results are
+ * proven, so two threads storing the same key store the same value and a
+ * lost race costs nothing.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [segments.length = the segment count in the header] AND
+ *                  [segment i has 2^(FIRST_SEGMENT_BITS + i) slots, at most 2^MAX_SEGMENT_BITS] AND
+ *                  [a slot's key is 0 or the key of the value in it, and never changes once set]
+ */
+public class SolverCache implements Closeable {
+
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int DRAW = 3;
+
+    private static final int MAGIC = 0x43585343;
+    private static final int VERSION = 2;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int SEGMENTS_AT = 6 * Integer.BYTES;
+    private static final int SLOT_BYTES = 2 * Long.BYTES;
+    private static final int FIRST_SEGMENT_BITS = 16;
+    private static final int MAX_SEGMENT_BITS = 26;
+    private static final int PROBES = 8;
+
+    //Stands in for a key of 0, since 0 marks an empty slot
+    private static final long ZERO_KEY = 0x9E3779B97F4A7C15L;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INTS =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private volatile MappedByteBuffer[] segments;
+
+    /**
+     * Constructor wraps an open file whose header has been checked
+     *
+     * @param ch channel of the file
+     * @param h mapped header
+     * @param s mapped segments
+     *
+     * @post channel = ch AND header = h AND segments = s
+     */
+    private SolverCache(FileChannel ch, MappedByteBuffer h, MappedByteBuffer[] s) {
+        channel = ch;
+        header = h;
+        segments = s;
+    }
+
+    /**
+     * Opens the cache in file, making it if it doesn't exist
+     *
+     * @param file where the cache is kept
+     * @param r number of rows of the boards it holds
+     * @param c number of columns of the boards it holds
+     * @param w number in a row to win
+     * @param np number of players
+     *
+     * @return the cache in file
+     *
+     * @pre [file isn't open as a cache anywhere else]
+     *
+     * @post open = [the cache in file, with every entry stored in it before]
+     *
+     * @throws IOException if file can't be read or written, or holds a cache for other games
+     */
+    public static SolverCache open(Path file, int r, int c, int w, int np) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            boolean fresh = channel.size() == 0;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            int[] expected = {MAGIC, VERSION, r, c, w, np};
+            for (int i = 0; i < expected.length; i++) {
+                if (fresh) {
+                    header.putInt(i * Integer.BYTES, expected[i]);
+                }
+                else if (header.getInt(i * Integer.BYTES) != expected[i]) {
+                    throw new IOException(file + " is not a solver cache for " + r + "x" + c
+                            + " boards with " + w + " to win and " + np + " players");
+                }
+            }
+
+            int count = fresh ? 1 : header.getInt(SEGMENTS_AT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                segments[i] = mapSegment(channel, i);
+            }
+            header.putInt(SEGMENTS_AT, count);
+            return new SolverCache(channel, header, segments);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the value stored for key
+     *
+     * @param key position hash
+     *
+     * @return packed value, 0 if key isn't stored
+     *
+     * @post self = #self
+     */
+    public long get(long key) {
+        key = key == 0 ? ZERO_KEY : key;
+        for (MappedByteBuffer segment : segments) {
+            int slots = segment.capacity() / SLOT_BYTES;
+            int start = slotOf(key, slots);
+            for (int i = 0; i < PROBES; i++) {
+                int at = ((start + i) & (slots - 1)) * SLOT_BYTES;
+                long found = (long) LONGS.getAcquire(segment, at);
+                if (found == key) {
+                    //0 means another thread has claimed the slot but not written it yet
+                    return (long) LONGS.getAcquire(segment, at + Long.BYTES);
+                }
+                if (found == 0) {
+                    break;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a proven result for key
+     *
+     * @param key position hash
+     * @param outcome WIN, LOSS or DRAW for the player to move
+     * @param distance number of moves until the game ends with best play
+     * @param column column to play
+     *
+     * @pre outcome is WIN, LOSS or DRAW AND 0 {@code <=} distance {@code <=} 0xFFFF AND
+     *      0 {@code <=} column {@code <=} 0xFFFF
+     *
+     * @post get(key) = pack(outcome, distance, column)
+     *
+     * @throws IOException if the file has to grow and can't
+     */
+    public void put(long key, int outcome, int distance, int column) throws IOException {
+        key = key == 0 ? ZERO_KEY : key;
+        long value = outcome | (long) distance << 8 | (long) column << 24;
+        while (true) {
+            MappedByteBuffer[] current = segments;
+            for (MappedByteBuffer segment : current) {
+                int slots = segment.capacity() / SLOT_BYTES;
+                int start = slotOf(key, slots);
+                for (int i = 0; i < PROBES; i++) {
+                    int at = ((start + i) & (slots - 1)) * SLOT_BYTES;
+                    long found = (long) LONGS.getAcquire(segment, at);
+                    if (found == 0 && LONGS.compareAndSet(segment, at, 0L, key)) {
+                        found = key;
+                    }
+                    else if (found == 0) {
+                        found = (long) LONGS.getAcquire(segment, at);
+                    }
+                    if (found == key) {
+                        LONGS.setRelease(segment, at + Long.BYTES, value);
+                        return;
+                    }
+                }
+            }
+            grow(current.length);
+        }
+    }
+
+    /**
+     * Returns the outcome in a value from get
+     *
+     * @param value packed value
+     *
+     * @return WIN, LOSS or DRAW
+     *
+     * @pre value {@code !=} 0
+     *
+     * @post outcome = [outcome packed into value]
+     */
+    public static int outcome(long value) {
+        return (int) (value & 0xFF);
+    }
+
+    /**
+     * Returns the number of moves left in a value from get
+     *
+     * @param value packed value
+     *
+     * @return number of moves until the game ends with best play
+     *
+     * @pre value {@code !=} 0
+     *
+     * @post distance = [distance packed into value]
+     */
+    public static int distance(long value) {
+        return (int) (value >>> 8 & 0xFFFF);
+    }
+
+    /**
+     * Returns the column in a value from get
+     *
+     * @param value packed value
+     *
+     * @return column to play
+     *
+     * @pre value {@code !=} 0
+     *
+     * @post column = [column packed into value]
+     */
+    public static int column(long value) {
+        return (int) (value >>> 24 & 0xFFFF);
+    }
+
+    /**
+     * Returns the number of segments in the table
+     *
+     * @return segments.length
+     *
+     * @post getNumSegments = segments.length
+     */
+    public int getNumSegments() {
+        return segments.length;
+    }
+
+    /**
+     * Writes every change to the file and closes it. The cache can't be used after this.
+     *
+     * @post [the file holds every entry stored]
+     *
+     * @throws IOException if the file can't be written
+     */
+    public void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        header.force();
+        channel.close();
+    }
+
+    /**
+     * Adds a segment at the end of the table unless another thread already has
+     *
+     * @param seen number of segments when the caller found no free slot
+     *
+     * @post segments.length {@code >} seen
+     *
+     * @throws IOException if the file can't grow
+     */
+    private synchronized void grow(int seen) throws IOException {
+        MappedByteBuffer[] current = segments;
+        if (current.length > seen) {
+            return;
+        }
+        MappedByteBuffer[] grown = new MappedByteBuffer[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = mapSegment(channel, current.length);
+        INTS.setRelease(header, SEGMENTS_AT, grown.length);
+        segments = grown;
+    }
+
+    /**
+     * Maps segment i of the file, making the file longer if it has to
+     *
+     * @param channel channel of the file
+     * @param i segment index
+     *
+     * @return the mapped segment
+     *
+     * @post [the file is at least as long as the end of segment i]
+     *
+     * @throws IOException if the file can't be mapped
+     */
+    private static MappedByteBuffer mapSegment(FileChannel channel, int i) throws IOException {
+        long at = HEADER_BYTES;
+        for (int j = 0; j < i; j++) {
+            at += segmentBytes(j);
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, at, segmentBytes(i));
+    }
+
+    /**
+     * Returns the size of segment i in bytes
+     *
+     * @param i segment index
+     *
+     * @return SLOT_BYTES * 2^min(FIRST_SEGMENT_BITS + i, MAX_SEGMENT_BITS)
+     *
+     * @post segmentBytes = SLOT_BYTES * 2^min(FIRST_SEGMENT_BITS + i, MAX_SEGMENT_BITS)
+     */
+    private static long segmentBytes(int i) {
+        return (long) SLOT_BYTES << Math.min(FIRST_SEGMENT_BITS + i, MAX_SEGMENT_BITS);
+    }
+
+    /**
+     * Returns the first slot to look for key in, in a segment of slots slots
+     *
+     * @param key position hash
+     * @param slots number of slots in the segment
+     *
+     * @return slot index
+     *
+     * @pre slots is a power of 2
+     *
+     * @post 0 {@code <=} slotOf {@code <} slots
+     */
+    private static int slotOf(long key, int slots) {
+        //Mix the high bits in so keys that only differ there still spread out
+        long mixed = key * 0xBF58476D1CE4E5B9L;
+        return (int) (mixed >>> 32 ^ mixed) & (slots - 1);
+    }
+}
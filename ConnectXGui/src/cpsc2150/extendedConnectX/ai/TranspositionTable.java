@@ -0,0 +1,156 @@
+package cpsc2150.extendedConnectX.ai;
+
+import java.util.Arrays;
+
+/**
+ * <p>This class, TranspositionTable, remembers search results by position key
+ * in a fixed number of slots. A new result always replaces whatever was in
+ * its slot.</p>
+ *
+ * <p>Each slot is two longs: the packed result and the key xor the result.
+ * A probe only counts as a hit when the two still agree, so threads can share
+ * one table without locks; a slot torn by two writers just reads as a miss.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [keys.length = data.length = a power of two] AND
+ *                  [slot i holds a result iff keys[i] xor data[i] is its key]
+ */
+public class TranspositionTable {
+
+    public static final int NONE = 0;
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    //Largest depth and column a slot has room for
+    public static final int MAX_DEPTH = 0xFF;
+    public static final int MAX_MOVE = 0xFE;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    /**
+     * Constructor creates an empty table with 2^bits slots
+     *
+     * @param bits log base 2 of the number of slots
+     *
+     * @pre 1 {@code <=} bits {@code <=} 30
+     *
+     * @post [every slot is empty] AND [table has 2^bits slots]
+     */
+    public TranspositionTable(int bits) {
+        keys = new long[1 << bits];
+        data = new long[1 << bits];
+        mask = (1 << bits) - 1;
+    }
+
+    /**
+     * Stores a result for key, replacing whatever was in its slot
+     *
+     * @param key position key
+     * @param score score of the position
+     * @param depth depth the score was searched to
+     * @param flag EXACT, LOWER or UPPER bound
+     * @param move best column found, -1 if none
+     *
+     * @pre -32768 {@code <=} score {@code <=} 32767
+     *
+     * @post [the slot for key holds this result]
+     *
+     * @throws IllegalArgumentException if depth or move doesn't fit in a slot, since it
+     *         would spill into the fields next to it
+     */
+    public void store(long key, int score, int depth, int flag, int move) {
+        if (depth < 0 || depth > MAX_DEPTH || move < -1 || move > MAX_MOVE) {
+            throw new IllegalArgumentException("Depth " + depth + " or move " + move + " out of range");
+        }
+        long packed = (score & 0xFFFFL) | ((long) depth << 16) | ((long) flag << 24)
+                | ((long) (move + 1) << 32);
+        int i = (int) key & mask;
+        data[i] = packed;
+        keys[i] = key ^ packed;
+    }
+
+    /**
+     * Returns the packed result stored for key
+     *
+     * @param key position key
+     *
+     * @return packed result, 0 if there is none; read it with the static getters
+     *
+     * @post probe = [packed result for key if its slot holds key, otherwise 0]
+     */
+    public long probe(long key) {
+        int i = (int) key & mask;
+        long packed = data[i];
+        if ((keys[i] ^ packed) != key) {
+            return 0;
+        }
+        return packed;
+    }
+
+    /**
+     * Empties every slot
+     *
+     * @post [every slot is empty]
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Returns the score of a packed result
+     *
+     * @param packed value returned by probe
+     *
+     * @return stored score
+     *
+     * @post score = [score given to store]
+     */
+    public static int score(long packed) {
+        return (short) packed;
+    }
+
+    /**
+     * Returns the depth of a packed result
+     *
+     * @param packed value returned by probe
+     *
+     * @return stored depth
+     *
+     * @post depth = [depth given to store]
+     */
+    public static int depth(long packed) {
+        return (int) (packed >>> 16) & 0xFF;
+    }
+
+    /**
+     * Returns the bound flag of a packed result
+     *
+     * @param packed value returned by probe
+     *
+     * @return EXACT, LOWER, UPPER, or NONE for a miss
+     *
+     * @post flag = [flag given to store, NONE if packed = 0]
+     */
+    public static int flag(long packed) {
+        return (int) (packed >>> 24) & 0xFF;
+    }
+
+    /**
+     * Returns the best move of a packed result
+     *
+     * @param packed value returned by probe
+     *
+     * @return stored column, -1 if none
+     *
+     * @post move = [move given to store]
+     */
+    public static int move(long packed) {
+        return (int) (packed >>> 32 & 0xFF) - 1;
+    }
+}
@@ -1,8 +1,14 @@
 package cpsc2150.extendedConnectX.controllers;
 
+import cpsc2150.extendedConnectX.ai.*;
 import cpsc2150.extendedConnectX.models.*;
 import cpsc2150.extendedConnectX.views.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * The controller class will handle communication between our View and our Model ({@link IGameBoard})
  * <p>
@@ -28,7 +34,7 @@ public class ConnectXController {
      * The screen that provides our view
      * </p>
      */
-    private ConnectXView screen;
+    private IConnectXView screen;
 
     /**
      * <p>
@@ -63,7 +69,63 @@ public class ConnectXController {
      * Hard coded player tokens for each player. Maximum of 10
      * </p>
      */
-    private final char[] players = {'X', 'O', 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+    private static final char[] PLAYERS = {'X', 'O', 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+
+    /**
+     * <p>
+     * The engine playing each seat, null for seats played by people
+     * </p>
+     */
+    private final ISearchEngine[] engines = new ISearchEngine[MAX_PLAYERS];
+
+    /**
+     * <p>
+     * The thread the game is played on. Moves, win checks and computer players all run
+     * here, one task at a time in the order they were posted, so the screen keeps
+     * responding however big the board is. curGame, turn, endGame and moves are only
+     * used on this thread.
+     * </p>
+     */
+    private final ExecutorService model = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "game-model");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * <p>
+     * Book of early moves computer players play without searching, null if there is none
+     * </p>
+     */
+    private OpeningBook book;
+
+    /**
+     * <p>
+     * Set once the game is left, so the game thread stops playing it
+     * </p>
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * <p>
+     * The number of moves played in this game
+     * </p>
+     */
+    private int moves;
+
+    /**
+     * <p>
+     * The number of moves the screen shows, only used on the view thread
+     * </p>
+     */
+    private int shownMoves;
+
+    /**
+     * <p>
+     * Whether the screen shows the game as over, only used on the view thread
+     * </p>
+     */
+    private boolean shownOver;
 
     /**
      * <p>
@@ -79,7 +141,7 @@ public class ConnectXController {
      * 
      * @post [ the controller will respond to actions on the view using the model. ]
      */
-    public ConnectXController(IGameBoard model, ConnectXView view, int np) {
+    public ConnectXController(IGameBoard model, IConnectXView view, int np) {
         this.curGame = model;
         this.screen = view;
         this.numPlayers = np;
@@ -89,53 +151,190 @@ public class ConnectXController {
 
     /**
      * <p>
-     * This processes a button click from the view.
+     * This returns the token of the player in a seat.
+     * </p>
+     *
+     * @param seat
+     *      The seat, 0 for the first player
+     *
+     * @return the character the player in seat places
+     *
+     * @pre 0 {@code <=} seat {@code <} MAX_PLAYERS
+     * @post getPlayerToken = [ the token of the player in seat ]
+     */
+    public static char getPlayerToken(int seat) {
+        return PLAYERS[seat];
+    }
+
+    /**
+     * <p>
+     * This processes a button click from the view. The move itself is played on the game
+     * thread. A click made while the screen was behind the game, because a move was still
+     * being played or a computer player was thinking, is dropped, so every click is about
+     * the board the player saw.
      * </p>
      * 
      * @param col 
      *      The column of the activated button
      * 
+     * @pre [ called on the view thread ]
      * @post [ will allow the player to place a token in the column if it is not full, otherwise it will display an error
-     * and allow them to pick again. Will check for a win as well. If a player wins it will allow for them to play another
-     * game hitting any button ]
+     * and allow them to pick again. Will check for a win as well. If a player wins it will allow for them to play a
+     * rematch with the same settings by clicking the board again ]
      */
     public void processButtonClick(int col) {
-        //If the game is won or tied reset
-        if (endGame) {
-            turn = 0;
-            endGame = false;
-            this.newGame();
+        //If the game is won or tied play again on the same board
+        if (shownOver) {
+            this.rematch();
             return;
         }
 
-        //If the selected spot isn't valid, print an error and return
-        if (!curGame.checkIfFree(col)) {
-            screen.setMessage("The selected column is full. Pick a different one.");
+        int seen = shownMoves;
+        model.execute(() -> playClick(col, seen));
+    }
+
+    /**
+     * <p>
+     * This returns whether the screen shows the game as over, so the next click starts a
+     * rematch wherever it is.
+     * </p>
+     *
+     * @return true iff the screen shows a won or tied game
+     *
+     * @pre [ called on the view thread ]
+     * @post isShowingGameOver = [ the screen shows the game as over ]
+     */
+    public boolean isShowingGameOver() {
+        return shownOver;
+    }
+
+    /**
+     * <p>
+     * This processes a click on the settings button from the view.
+     * </p>
+     *
+     * @pre [ called on the view thread ]
+     * @post [ the game is left and the setup screen is shown ]
+     */
+    public void processSettingsClick() {
+        this.newGame();
+    }
+
+    /**
+     * <p>
+     * This runs r on the view thread once every click, computer move and setting posted so
+     * far has been played and shown. Views that read moves from a stream use it to wait for
+     * the game before sending the next move, so none are dropped.
+     * </p>
+     *
+     * @param r
+     *      The work to run when the game has caught up
+     *
+     * @post [ r runs on the view thread after every update posted before it ]
+     */
+    public void afterPendingMoves(Runnable r) {
+        //Computer turns run inside the task that started them, so this runs after them too
+        model.execute(() -> screen.runOnViewThread(r));
+    }
+
+    /**
+     * <p>
+     * This makes seat a computer player that picks its moves with engine.
+     * If it is already that seat's turn the computer moves right away.
+     * The engine is shut down when the game is left.
+     * </p>
+     *
+     * @param seat
+     *      The seat to hand to the computer, 0 for the first player
+     * @param engine
+     *      The engine that picks the moves, or null to give the seat back to a person
+     *
+     * @pre 0 {@code <=} seat {@code <} numPlayers
+     * @post [ seat is played by engine from now on ]
+     */
+    public void setComputerPlayer(int seat, ISearchEngine engine) {
+        engines[seat] = engine;
+        model.execute(this::playComputerTurns);
+    }
+
+    /**
+     * <p>
+     * This gives computer players a book of early moves. While the position is in the book
+     * they play its column right away instead of searching.
+     * </p>
+     *
+     * @param b
+     *      The book to use, or null to always search
+     *
+     * @post [ book = b from the next move on ]
+     */
+    public void setOpeningBook(OpeningBook b) {
+        model.execute(() -> {
+            //A book for another size or player count can't have this game's positions
+            book = b != null && b.matches(curGame, numPlayers) ? b : null;
+        });
+    }
+
+    /**
+     * <p>
+     * This plays a person's click on the game thread, then any computer turns after it.
+     * </p>
+     *
+     * @param col
+     *      The column clicked
+     * @param seen
+     *      The number of moves the screen showed when the click was made
+     *
+     * @post [ the move is played if seen = moves and it is a person's turn in a game that is
+     * not over, an error is shown if col is full, otherwise the click is dropped ]
+     */
+    private void playClick(int col, int seen) {
+        //Drop clicks on a board that changed since, and clicks on computer turns
+        if (cancelled || endGame || seen != moves || engines[turn] != null) {
             return;
         }
 
-        //If it is valid, find the current row for use with setting the marker
-        int row = 1;
-        for (int i = 0; i < curGame.getNumRows(); i++) {
-            BoardPosition pos = new BoardPosition(i, col);
-            char currentSpace = curGame.whatsAtPos(pos);
-            if (currentSpace == ' ') {
-                row = pos.getRow();
-                break;
-            }
+        ViewUpdate update = new ViewUpdate();
+        //If the selected spot isn't valid, print an error and return
+        if (!curGame.checkIfFree(col)) {
+            update.message = "The selected column is full. Pick a different one.";
+        }
+        else {
+            playMove(col, update);
         }
+        show(update);
+        playComputerTurns();
+    }
 
-        //Place the token and set the marker
-        curGame.placeToken(players[turn], col);
-        screen.setMarker(row, col, players[turn]);
+    /**
+     * <p>
+     * This places a token for the current player in col and records what the view needs
+     * to show for it.
+     * </p>
+     *
+     * @param col
+     *      The column to play in
+     * @param update
+     *      The view changes to add the move to
+     *
+     * @pre [ on the game thread ] AND [ the game is not over ] AND [ col is not full ]
+     * @post [ the token is placed and added to update, the game is ended on a win or tie,
+     * otherwise it is the next player's turn ] AND moves = #moves + 1
+     */
+    private void playMove(int col, ViewUpdate update) {
+        //Place the token and set the marker on the row it landed in
+        int row = curGame.placeToken(PLAYERS[turn], col);
+        update.cells.add(new BoardPosition(row, col));
+        update.tokens.append(PLAYERS[turn]);
+        moves++;
 
         //Check for tie and win
         if (curGame.checkTie()) {
-            screen.setMessage("Tie game! Press any button to start a new game.");
+            update.message = "Tie game! " + screen.getRematchPrompt();
             endGame = true;
         }
         else if (curGame.checkForWin(col)) {
-            screen.setMessage("Player " + players[turn] + " won! Press any button to start a new game.");
+            update.message = "Player " + PLAYERS[turn] + " won! " + screen.getRematchPrompt();
             endGame = true;
         }
 
@@ -149,10 +348,172 @@ public class ConnectXController {
 
         //Change the current message to say the correct player's turn if game is not over
         if (!endGame) {
-            screen.setMessage("It is " + players[turn] + "'s turn.");
+            update.message = "It is " + PLAYERS[turn] + "'s turn.";
+        }
+        update.moves = moves;
+        update.over = endGame;
+    }
+
+    /**
+     * <p>
+     * This plays computer turns on the game thread until the game ends or it is a person's
+     * turn. Positions in the opening book are played right away with no search, and are
+     * shown together with the next searched move. On a person's turn the computer players
+     * ponder instead.
+     * </p>
+     *
+     * @pre [ on the game thread ]
+     * @post [ the game is over, cancelled, or it is a person's turn and the computer
+     * players are pondering ]
+     */
+    private void playComputerTurns() {
+        ViewUpdate update = new ViewUpdate();
+        while (!cancelled && !endGame && engines[turn] != null) {
+            int column = book == null ? -1 : book.suggest(curGame, numPlayers);
+            if (column < 0) {
+                //Show the book moves before thinking, so the screen isn't behind during the search
+                if (!update.cells.isEmpty()) {
+                    show(update);
+                    update = new ViewUpdate();
+                }
+
+                column = engines[turn].search(curGame, PLAYERS, numPlayers, turn).getColumn();
+                if (cancelled) {
+                    return;
+                }
+            }
+            playMove(column, update);
+        }
+
+        if (!update.cells.isEmpty()) {
+            show(update);
+        }
+        if (!cancelled && !endGame) {
+            ponder();
+        }
+    }
+
+    /**
+     * <p>
+     * This lets every computer player think while a person decides. Each engine copies the
+     * board before this returns, so the person's click can change it right away. Their next
+     * search stops the pondering before it starts.
+     * </p>
+     *
+     * @pre [ the game is not over ] AND [ the current seat is played by a person ]
+     * @post [ every computer player is pondering the current position ]
+     */
+    private void ponder() {
+        for (int i = 0; i < numPlayers; i++) {
+            ISearchEngine engine = engines[i];
+            if (engine == null) {
+                continue;
+            }
+
+            //An engine playing several seats only needs to ponder once
+            boolean seen = false;
+            for (int j = 0; j < i && !seen; j++) {
+                seen = engines[j] == engine;
+            }
+            if (!seen) {
+                engine.ponder(curGame, PLAYERS, numPlayers, turn);
+            }
         }
     }
 
+    /**
+     * <p>
+     * This shows the changes of one or more moves on the screen, all in one task on the
+     * view thread.
+     * </p>
+     *
+     * @param update
+     *      The changes to show
+     *
+     * @post [ the screen will show update, unless the game is left first ]
+     */
+    private void show(ViewUpdate update) {
+        screen.runOnViewThread(() -> {
+            if (cancelled) {
+                return;
+            }
+            if (update.clear) {
+                screen.clearMarkers();
+            }
+            for (int i = 0; i < update.cells.size(); i++) {
+                BoardPosition cell = update.cells.get(i);
+                screen.setMarker(cell.getRow(), cell.getColumn(), update.tokens.charAt(i));
+            }
+            if (update.message != null) {
+                screen.setMessage(update.message);
+            }
+            if (update.clear || !update.cells.isEmpty()) {
+                shownMoves = update.moves;
+                shownOver = update.over;
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * This stops the computer player that is thinking, if any, and the game thread. Once
+     * the game thread is done every computer player is shut down, so none of their threads
+     * outlive the game.
+     * </p>
+     *
+     * @post cancelled = true AND [ no more moves are played or shown ] AND
+     * [ no computer player is pondering ]
+     */
+    private void cancelComputerTurn() {
+        cancelled = true;
+        for (int i = 0; i < numPlayers; i++) {
+            //Stops pondering too, not just the engine that is thinking
+            if (engines[i] != null) {
+                engines[i].stop();
+            }
+        }
+
+        //Last task on the game thread, so no search can start on an engine that was shut down
+        model.execute(() -> {
+            for (int i = 0; i < numPlayers; i++) {
+                if (engines[i] != null) {
+                    engines[i].shutdown();
+                }
+            }
+        });
+        model.shutdown();
+    }
+
+    /**
+     * <p>
+     * This starts a rematch with the same settings, computer players and screen. The board
+     * is emptied in place on the game thread and the screen's markers are cleared in place,
+     * so nothing is rebuilt.
+     * </p>
+     *
+     * @pre [ called on the view thread ] AND [ the screen shows the game as over ]
+     * @post [ a new game is started on the same board and screen ]
+     */
+    private void rematch() {
+        //Clicks before the empty board is shown are dropped, they were made on the old game
+        shownOver = false;
+        model.execute(() -> {
+            if (cancelled) {
+                return;
+            }
+            curGame.reset();
+            turn = 0;
+            moves = 0;
+            endGame = false;
+
+            ViewUpdate update = new ViewUpdate();
+            update.clear = true;
+            update.message = "It is " + PLAYERS[turn] + "'s turn.";
+            show(update);
+            playComputerTurns();
+        });
+    }
+
     /**
      * <p>
      * This method will start a new game by returning to the setup screen and controller
@@ -161,12 +522,30 @@ public class ConnectXController {
      * @post [ a new game gets started ]
      */
     private void newGame() {
-        //close the current screen
-        screen.dispose();
-        
-        //start back at the set up menu
-        SetupView screen = new SetupView();
-        SetupController controller = new SetupController(screen);
-        screen.registerObserver(controller);
-    }
-}
\ No newline at end of file
+        //The game was already left, a second click has nothing more to stop or show
+        if (cancelled) {
+            return;
+        }
+
+        //stop any computer player and the game thread
+        cancelComputerTurn();
+
+        //close the current screen and start back at the set up menu
+        screen.showSetup();
+    }
+
+    /**
+     * <p>
+     * The changes moves made on the game thread need on the screen, shown together
+     * </p>
+     */
+    private static final class ViewUpdate {
+
+        private final List<BoardPosition> cells = new ArrayList<>(1);
+        private final StringBuilder tokens = new StringBuilder(1);
+        private boolean clear;
+        private String message;
+        private int moves;
+        private boolean over;
+    }
+}
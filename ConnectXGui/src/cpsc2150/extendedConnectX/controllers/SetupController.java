@@ -1,21 +1,34 @@
 package cpsc2150.extendedConnectX.controllers;
 
+import cpsc2150.extendedConnectX.*;
+import cpsc2150.extendedConnectX.ai.*;
 import cpsc2150.extendedConnectX.models.*;
 import cpsc2150.extendedConnectX.views.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 /**
  * This class is the controller for our setup screen. The {@code processButtonClick} method is called by
- * {@link SetupView} when someone clicks on the submit button. It is passed in the rows, cols, players and
- * the number to win by the view, but it still needs to validate that input. If there are any
- * errors it can use the displayError method in the SetupView class to inform the player of the
- * error, then wait for them to fix it and resubmit.
+ * {@link SetupView} when someone clicks on the submit button. It is passed in the rows, cols, players,
+ * the number to win, which seats the computer plays and how long it thinks by the view, but it still
+ * needs to validate that input. The thinking time is only checked when the computer plays a seat. If
+ * there are any errors it can use the displayError method in the SetupView class to inform the player
+ * of the error, then wait for them to fix it and resubmit.
  * <p>
  * If there are no errors it will create a new {@link IGameBoard} object (the implementation will depend on
  * the size of the game board) to serve as the model, and the {@link ConnectXController} and {@link ConnectXView}.
- * Control is then passed over the event dispatch thread that will wait for an event to occur
+ * The opening book for the size is loaded next, for two player games only. Then every seat the computer
+ * plays gets its own engine: a {@link PonderingEngine} in two player games, which keeps thinking while
+ * people decide, and an {@link MctsEngine} in bigger games, since the negamax engines only score two
+ * player games right. Control is then passed over the event dispatch thread that will wait for an event
+ * to occur.
  * <p>
- * No changes need to be made to this class.
- * 
+ * The text mode builds its games with the same static methods, newBoard, newComputerPlayer and
+ * useOpeningBook, so both ways of playing pick the same board, engines and book.
+ *
  * @version 2.0
  */
 public class SetupController {
@@ -31,13 +44,30 @@ public class SetupController {
      * <p>
      * Constants for minimum size, maximum size, minimum number of
      * tokens required to win and the board cutoff for automatically
-     * choosing between Gameboard and GameboardMem.
+     * choosing between GameboardBit and GameboardStack.
      * </p>
      */
     private final int MAX_SIZE = 20;
     private final int MIN_SIZE = 3;
     private final int MIN_TO_WIN = 3;
-    private final int BOARD_CUTOFF = 100;
+    private static final int BOARD_CUTOFF = 100;
+
+    /**
+     * <p>
+     * Constants for the shortest, longest and default time a computer player
+     * thinks about a move, in milliseconds.
+     * </p>
+     */
+    public static final long MIN_THINK_MILLIS = 1;
+    public static final long MAX_THINK_MILLIS = 60000;
+    public static final long DEFAULT_THINK_MILLIS = 1000;
+
+    /**
+     * <p>
+     * Folder the opening books are looked for in, relative to where the game is run from.
+     * </p>
+     */
+    private static final String BOOK_FOLDER = "books";
 
     /**
      * <p>
@@ -64,8 +94,15 @@ public class SetupController {
      *      Number of players for this game
      * @param numWin
      *      Number of tokens in a row required to win
+     * @param computers
+     *      Whether the computer plays each seat, the first player first
+     * @param thinkMillis
+     *      How long computer players think about a move, in milliseconds
+     *
+     * @pre computers.length {@code >=} players
      */
-    public void processButtonClick(int rows, int cols, int players, int numWin) {
+    public void processButtonClick(int rows, int cols, int players, int numWin, boolean[] computers,
+                                   long thinkMillis) {
         String errorMsg = "";
         if (rows < MIN_SIZE || rows > MAX_SIZE) {
             errorMsg += "Rows must be between " + MIN_SIZE + " and " + MAX_SIZE;
@@ -87,23 +124,121 @@ public class SetupController {
             errorMsg += "Number to win must be at least " + MIN_TO_WIN;
         }
 
+        boolean anyComputer = false;
+        for (int i = 0; i < players; i++) {
+            anyComputer |= computers[i];
+        }
+        //The time only matters if the computer plays
+        if (anyComputer && (thinkMillis < MIN_THINK_MILLIS || thinkMillis > MAX_THINK_MILLIS)) {
+            errorMsg += "Thinking time must be between " + MIN_THINK_MILLIS + " and " + MAX_THINK_MILLIS + " ms";
+        }
+
         if (!errorMsg.equals("")) {
             view.displayError(errorMsg);
         } else {
             view.closeScreen();
-            IGameBoard model;
-            
-            // if the board is too big we'll want the memory efficient version
-            if (rows * cols > BOARD_CUTOFF) {
-                model = new GameBoardMem(rows, cols, numWin);
-            } else {
-                model = new GameBoard(rows, cols, numWin);
-            }
+            IGameBoard model = newBoard(rows, cols, numWin);
 
+            StartupTimer.phase("setup input");
+            StartupTimer.phaseOnFirstPaint("game first-paint");
             ConnectXView tview = new ConnectXView(rows, cols);
             ConnectXController tcontroller = new ConnectXController(model, tview, players);
 
             tview.registerObserver(tcontroller);
+            StartupTimer.phase("game construction");
+
+            //the book is set first, so a computer that moves first can already use it
+            useOpeningBook(tcontroller, rows, cols, numWin, players);
+            for (int i = 0; i < players; i++) {
+                if (computers[i]) {
+                    tcontroller.setComputerPlayer(i, newComputerPlayer(players, thinkMillis));
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This creates an engine for one computer player. Two player games get an engine that
+     * keeps thinking while the person decides. Games with more players get Monte Carlo tree
+     * search, since the negamax engines only score two player games right.
+     * </p>
+     *
+     * @param players
+     *      The number of players in the game
+     * @param thinkMillis
+     *      How long the engine thinks about a move, in milliseconds
+     *
+     * @return an engine for one seat
+     *
+     * @pre MIN_THINK_MILLIS {@code <=} thinkMillis {@code <=} MAX_THINK_MILLIS
+     * @post newComputerPlayer = [ a new engine that thinks for thinkMillis a move ]
+     */
+    public static ISearchEngine newComputerPlayer(int players, long thinkMillis) {
+        if (players == 2) {
+            return new PonderingEngine(thinkMillis);
+        } else {
+            return new MctsEngine(thinkMillis, Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * <p>
+     * This gives controller the opening book for a game of the given size, if one has been built.
+     * Books are searched with negamax, so only two player games use one.
+     * </p>
+     *
+     * @param controller
+     *      The controller of the game
+     * @param rows
+     *      The number of rows
+     * @param cols
+     *      The number of columns
+     * @param numWin
+     *      The number in a row to win
+     * @param players
+     *      The number of players
+     *
+     * @post [ controller uses the book in BOOK_FOLDER for this size, if there is one and
+     * players = NegamaxEngine.NUM_PLAYERS ]
+     */
+    public static void useOpeningBook(ConnectXController controller, int rows, int cols, int numWin, int players) {
+        if (players != NegamaxEngine.NUM_PLAYERS) {
+            return;
+        }
+        Path bookFile = Paths.get(BOOK_FOLDER, OpeningBook.fileName(rows, cols, numWin, players));
+        if (Files.isRegularFile(bookFile)) {
+            try {
+                controller.setOpeningBook(OpeningBook.open(bookFile));
+            } catch (IOException e) {
+                //computer players still work without a book, they just search every move
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This creates the board a game of the given size is played on.
+     * </p>
+     *
+     * @param rows
+     *      The number of rows
+     * @param cols
+     *      The number of columns
+     * @param numWin
+     *      The number in a row to win
+     *
+     * @return an empty board of that size
+     *
+     * @pre [ rows, cols and numWin are valid for an {@link IGameBoard} ]
+     * @post newBoard = [ an empty rows x cols board with numWin to win ]
+     */
+    public static IGameBoard newBoard(int rows, int cols, int numWin) {
+        // if the board is too big we'll want the memory efficient version
+        if (rows * cols > BOARD_CUTOFF) {
+            return new GameBoardStack(rows, cols, numWin);
+        } else {
+            return new GameBoardBit(rows, cols, numWin);
         }
     }
-}
\ No newline at end of file
+}
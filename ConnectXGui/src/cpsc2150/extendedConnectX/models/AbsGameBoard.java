@@ -1,39 +1,184 @@
 package cpsc2150.extendedConnectX.models;
 
 /**
- * Abstract class for toString override
+ * Abstract class for the state every board shares and the toString override
  *
  * @author Davis Little
  * @version 1.0
+ *
+ * @Correspondences num_rows = numRows
+ *                  num_columns = numColumns
+ *                  num_to_win = numToWin
+ *
+ * @Invariants      0 {@code <=} heights[c] {@code <=} numRows AND
+ *                  [heights[c] = number of tokens in column c] AND
+ *                  numTokens = [sum of heights] AND
+ *                  hash = [xor of the Zobrist keys of every token in self] AND
+ *                  mirrorHash = [xor of the Zobrist keys of every token in self
+ *                  with column c moved to numColumns - 1 - c]
  */
 public abstract class AbsGameBoard implements IGameBoard{
 
+    private final int numRows;
+    private final int numColumns;
+    private final int numToWin;
+    private final int[] heights;
+    private int numTokens;
+    private long hash;
+    private long mirrorHash;
+
     /**
-     * Overrides the toString method to create string in correct format
+     * Constructor sets the board size and starts every column empty
      *
-     * @return String that shows entire game board
-     * @post self = #self AND
-     *       toString = [game board content in string format]
+     * @param r number of rows
+     * @param c number of columns
+     * @param w number in a row to win
+     *
+     * @post numRows = r AND
+     *       numColumns = c AND
+     *       numToWin = w AND
+     *       [every column height is 0] AND
+     *       numTokens = 0 AND
+     *       hash = 0 AND
+     *       mirrorHash = 0
      */
-    @Override
-    public String toString() {
-        String returnString = "|";
+    protected AbsGameBoard(int r, int c, int w) {
+        numRows = r;
+        numColumns = c;
+        numToWin = w;
+        heights = new int[c];
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumColumns() {
+        return numColumns;
+    }
+
+    public int getNumToWin() {
+        return numToWin;
+    }
 
-        for (int i = 0; i < getNumColumns(); i++) {
-            returnString += i;
-            returnString += "|";
+    public int getColumnHeight(int c) {
+        return heights[c];
+    }
+
+    public int getNumTokens() {
+        return numTokens;
+    }
+
+    public int placeToken(char p, int c) {
+        int row = heights[c]++;
+        numTokens++;
+        hash ^= ZobristKeys.key(row, c, p);
+        mirrorHash ^= ZobristKeys.key(row, numColumns - 1 - c, p);
+        storeToken(p, row, c);
+        return row;
+    }
+
+    public char removeToken(int c) {
+        int row = heights[c] - 1;
+        char p = whatsAtPos(row, c);
+        heights[c] = row;
+        numTokens--;
+        hash ^= ZobristKeys.key(row, c, p);
+        mirrorHash ^= ZobristKeys.key(row, numColumns - 1 - c, p);
+        clearToken(p, row, c);
+        return p;
+    }
+
+    public void reset() {
+        clearTokens();
+        for (int c = 0; c < numColumns; c++) {
+            heights[c] = 0;
         }
+        numTokens = 0;
+        hash = 0;
+        mirrorHash = 0;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return hash;
+    }
+
+    @Override
+    public long getMirroredZobristHash() {
+        return mirrorHash;
+    }
+
+    @Override
+    public long getCanonicalHash() {
+        return Math.min(hash, mirrorHash);
+    }
 
-        returnString += "\n";
+    @Override
+    public boolean isMirrored() {
+        return mirrorHash < hash;
+    }
 
-        for (int i = getNumRows() - 1; i >= 0; i--) {
-            for (int j = 0; j < getNumColumns(); j++) {
-                returnString += "|";
-                returnString += whatsAtPos(new BoardPosition(i, j));
+    @Override
+    public boolean checkTie() {
+        return numTokens == numRows * numColumns;
+    }
+
+    /**
+     * Stores player p at an empty position. The column height has already
+     * been updated by placeToken.
+     *
+     * @param p player character
+     * @param r row to store p in
+     * @param c column to store p in
+     *
+     * @pre [self[r][c] is empty] AND [every row below r in column c is taken]
+     *
+     * @post self[r][c] = p
+     */
+    protected abstract void storeToken(char p, int r, int c);
+
+    /**
+     * Clears the top token of a column. The column height has already
+     * been updated by removeToken.
+     *
+     * @param p player character at (r, c)
+     * @param r row to clear
+     * @param c column to clear
+     *
+     * @pre self[r][c] = p AND [every row above r in column c is empty]
+     *
+     * @post self[r][c] = ' '
+     */
+    protected abstract void clearToken(char p, int r, int c);
+
+    /**
+     * Clears every token for reset. The column heights are still those of
+     * the full board, and are set to 0 by reset after this returns. By
+     * default each token is cleared with clearToken, top of each column
+     * first.
+     *
+     * @pre [the column heights match the tokens in self]
+     *
+     * @post [All chars in self are empty spaces]
+     */
+    protected void clearTokens() {
+        for (int c = 0; c < numColumns; c++) {
+            for (int r = heights[c] - 1; r >= 0; r--) {
+                clearToken(whatsAtPos(r, c), r, c);
             }
-            returnString += "|\n";
         }
+    }
 
-        return returnString;
+    /**
+     * Overrides the toString method to create string in correct format
+     *
+     * @return String that shows entire game board
+     * @post self = #self AND
+     *       toString = [game board content in string format]
+     */
+    @Override
+    public String toString() {
+        return render(new StringBuilder(getRenderedLength())).toString();
     }
 }
@@ -10,6 +10,9 @@ package cpsc2150.extendedConnectX.models;
  */
 public class BoardPosition {
 
+    private static final BoardPosition[] CACHE =
+            new BoardPosition[IGameBoard.MAX_ROWS * IGameBoard.MAX_COLUMNS];
+
     private final int row;
     private final int column;
 
@@ -28,6 +31,35 @@ public class BoardPosition {
         column = c;
     }
 
+    /**
+     * Returns the shared BoardPosition for row r and column c. Positions on the
+     * largest legal board are only ever created once; anything outside of it
+     * gets a new object.
+     *
+     * @param r row
+     * @param c column
+     *
+     * @return BoardPosition with row r and column c
+     *
+     * @post
+     *          valueOf.getRow() = r AND valueOf.getColumn() = c AND
+     *          [valueOf is the same object for every call with the same r and c
+     *          inside MAX_ROWS x MAX_COLUMNS]
+     */
+    public static BoardPosition valueOf(int r, int c) {
+        if (r < 0 || r >= IGameBoard.MAX_ROWS || c < 0 || c >= IGameBoard.MAX_COLUMNS) {
+            return new BoardPosition(r, c);
+        }
+        int i = r * IGameBoard.MAX_COLUMNS + c;
+        BoardPosition pos = CACHE[i];
+        if (pos == null) {
+            //Fields are final, so racing threads at worst build an equal copy
+            pos = new BoardPosition(r, c);
+            CACHE[i] = pos;
+        }
+        return pos;
+    }
+
     /**
      * Returns the row variable
      *
@@ -88,10 +120,24 @@ public class BoardPosition {
      */
     @Override
     public boolean equals(Object o) {
-        if (o.getClass() != getClass()) {
+        if (o == null || o.getClass() != getClass()) {
             return false;
         }
         BoardPosition pos = (BoardPosition)o;
         return (pos.getRow() == row && pos.getColumn() == column);
     }
+
+    /**
+     * Overrides the hashCode method so equal BoardPositions hash the same
+     *
+     * @return hash built from row and column
+     *
+     * @post
+     *          row = #row AND column = #column AND
+     *          hashCode = [row * MAX_COLUMNS + column]
+     */
+    @Override
+    public int hashCode() {
+        return row * IGameBoard.MAX_COLUMNS + column;
+    }
 }
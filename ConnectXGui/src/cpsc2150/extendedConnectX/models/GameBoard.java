@@ -21,9 +21,6 @@ package cpsc2150.extendedConnectX.models;
  */
 public class GameBoard extends AbsGameBoard implements IGameBoard {
 
-    private final int numRows;
-    private final int numColumns;
-    private final int numToWin;
     private char board[][];
 
     /**
@@ -39,39 +36,24 @@ public class GameBoard extends AbsGameBoard implements IGameBoard {
      *          numToWin = w
      */
     public GameBoard(int r, int c, int w) {
-        numRows = r;
-        numColumns = c;
-        numToWin = w;
-        board = new char[numRows][numColumns];
-        for (int i = 0; i < numRows; i++) {
-            for (int j = 0; j < numColumns; j++) {
+        super(r, c, w);
+        board = new char[r][c];
+        for (int i = 0; i < r; i++) {
+            for (int j = 0; j < c; j++) {
                 board[i][j] = ' ';
             }
         }
     }
 
-    public int getNumRows() {
-        return numRows;
+    protected void storeToken(char p, int r, int c) {
+        board[r][c] = p;
     }
 
-    public int getNumColumns() {
-        return numColumns;
+    protected void clearToken(char p, int r, int c) {
+        board[r][c] = ' ';
     }
 
-    public int getNumToWin() {
-        return numToWin;
-    }
-
-    public void placeToken(char p, int c) {
-        for (int i = 0; i < numRows; i++) {
-            if (board[i][c] == ' ') {
-                board[i][c] = p;
-                return;
-            }
-        }
-    }
-
-    public char whatsAtPos(BoardPosition pos) {
-        return board[pos.getRow()][pos.getColumn()];
+    public char whatsAtPos(int r, int c) {
+        return board[r][c];
     }
 }
@@ -0,0 +1,249 @@
+package cpsc2150.extendedConnectX.models;
+
+/**
+ * <p>This class, GameBoardBit, keeps track of the game board as one
+ * bitset per player. Each column takes num_rows + 1 bits, the extra bit
+ * is always empty so that runs can't wrap from the top of one column to
+ * the bottom of the next one.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Correspondences self = [bit (c * (numRows + 1) + r) of bits[i] is set iff
+ *                          players[i] is at (r, c), otherwise ' ']
+ *                  num_rows = numRows
+ *                  num_columns = numColumns
+ *                  num_to_win = numToWin
+ *
+ * @Invariants      [occupied = union of every bits[i]] AND
+ *                  [the padding bit of each column is never set] AND
+ *                  MIN_COLUMNS {@code <=} numColumns {@code <=} MAX_COLUMNS AND
+ *                  MIN_ROWS {@code <=}  numRows {@code <=} MAX_ROWS AND
+ *                  MIN_NUM_TO_WIN {@code <=} numToWin {@code <=} MAX_NUM_TO_WIN
+ */
+public class GameBoardBit extends AbsGameBoard implements IGameBoard {
+
+    private final int stride;
+    private final int numWords;
+
+    private final char[] players = new char[MAX_PLAYERS];
+    private final long[][] bits = new long[MAX_PLAYERS][];
+    private int numPlayers;
+
+    private final long[] occupied;
+    private final long[] scratch;
+
+    /**
+     * Constructor creates an empty board
+     *
+     * @param r number of rows
+     * @param c number of columns
+     * @param w number in a row to win
+     *
+     * @post [every bit in the board is clear] AND
+     *       numRows = r AND
+     *       numColumns = c AND
+     *       numToWin = w
+     */
+    public GameBoardBit(int r, int c, int w) {
+        super(r, c, w);
+        stride = r + 1;
+        numWords = (c * stride + 63) >>> 6;
+
+        occupied = new long[numWords];
+        scratch = new long[numWords];
+    }
+
+    protected void storeToken(char p, int r, int c) {
+        int bit = c * stride + r;
+        long[] mine = bits[playerIndex(p, true)];
+        mine[bit >>> 6] |= 1L << bit;
+        occupied[bit >>> 6] |= 1L << bit;
+    }
+
+    protected void clearToken(char p, int r, int c) {
+        int bit = c * stride + r;
+        long[] mine = bits[playerIndex(p, false)];
+        mine[bit >>> 6] &= ~(1L << bit);
+        occupied[bit >>> 6] &= ~(1L << bit);
+    }
+
+    @Override
+    public boolean checkForWin(int c) {
+        int height = getColumnHeight(c);
+        if (height == 0) {
+            return false;
+        }
+        int bit = c * stride + height - 1;
+
+        long[] mine = null;
+        for (int i = 0; i < numPlayers && mine == null; i++) {
+            if ((bits[i][bit >>> 6] & (1L << bit)) != 0) {
+                mine = bits[i];
+            }
+        }
+
+        //Vertical, horizontal and the two diagonals
+        return hasRun(mine, bit, 1) || hasRun(mine, bit, stride)
+                || hasRun(mine, bit, stride + 1) || hasRun(mine, bit, stride - 1);
+    }
+
+    public char whatsAtPos(int r, int c) {
+        int bit = c * stride + r;
+        if ((occupied[bit >>> 6] & (1L << bit)) == 0) {
+            return ' ';
+        }
+        for (int i = 0; i < numPlayers; i++) {
+            if ((bits[i][bit >>> 6] & (1L << bit)) != 0) {
+                return players[i];
+            }
+        }
+        return ' ';
+    }
+
+    @Override
+    public boolean isPlayerAtPos(int r, int c, char player) {
+        int i = playerIndex(player, false);
+        if (i < 0) {
+            return false;
+        }
+        int bit = c * stride + r;
+        return (bits[i][bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Returns the index of the bitset for player p
+     *
+     * @param p player character
+     * @param add whether to give p a new bitset if it doesn't have one
+     *
+     * @return index of p's bitset, -1 if p has none and add is false
+     *
+     * @pre [add is false OR p has a bitset OR numPlayers {@code <} MAX_PLAYERS]
+     *
+     * @post playerIndex = [index of p in players] AND
+     *       [p is added to players iff add and p was not in players]
+     */
+    private int playerIndex(char p, boolean add) {
+        for (int i = 0; i < numPlayers; i++) {
+            if (players[i] == p) {
+                return i;
+            }
+        }
+        if (!add) {
+            return -1;
+        }
+        players[numPlayers] = p;
+        bits[numPlayers] = new long[numWords];
+        return numPlayers++;
+    }
+
+    /**
+     * Checks if the bit at pos is part of num_to_win set bits spaced step apart.
+     * Only the words that a run through pos can touch are copied into scratch, then
+     * each pass ands the window with a shifted copy of itself, doubling the run
+     * length that a set bit stands for.
+     *
+     * @param b bitset of the player at pos
+     * @param pos bit index of the latest token
+     * @param step distance in bits between neighbours in one direction
+     *
+     * @return true iff [num_to_win bits in b, step apart, include pos]
+     *
+     * @pre [bit pos is set in b] AND 0 {@code <} step
+     *
+     * @post hasRun = [pos is part of a run of num_to_win in direction step] AND
+     *       [b is unchanged]
+     */
+    private boolean hasRun(long[] b, int pos, int step) {
+        int numToWin = getNumToWin();
+        int reach = (numToWin - 1) * step;
+        if (numWords == 1) {
+            return hasRun(b[0], pos, step, reach);
+        }
+
+        int low = Math.max(0, pos - reach);
+        int high = Math.min(numWords * 64 - 1, pos + reach);
+        int first = low >>> 6;
+        int n = (high >>> 6) - first + 1;
+
+        System.arraycopy(b, first, scratch, 0, n);
+
+        //After each pass bit i is set iff the len bits starting at i are all set
+        int len = 1;
+        while (len < numToWin) {
+            int add = Math.min(len, numToWin - len);
+            andShifted(scratch, n, add * step);
+            len += add;
+        }
+
+        //A run covers pos iff it starts at one of the num_to_win spots at or below pos
+        int base = first << 6;
+        for (int start = pos - reach; start <= pos; start += step) {
+            if (start >= low) {
+                int i = start - base;
+                if ((scratch[i >>> 6] & (1L << i)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as hasRun for a board that fits in one word, without copying
+     *
+     * @param b only word of the bitset of the player at pos
+     * @param pos bit index of the latest token
+     * @param step distance in bits between neighbours in one direction
+     * @param reach (num_to_win - 1) * step
+     *
+     * @return true iff [num_to_win bits in b, step apart, include pos]
+     *
+     * @pre [bit pos is set in b] AND 0 {@code <} step
+     *
+     * @post hasRun = [pos is part of a run of num_to_win in direction step]
+     */
+    private boolean hasRun(long b, int pos, int step, int reach) {
+        int numToWin = getNumToWin();
+        int len = 1;
+        while (len < numToWin) {
+            int add = Math.min(len, numToWin - len);
+            b &= b >>> (add * step);
+            len += add;
+        }
+        for (int start = Math.max(pos - reach, pos % step); start <= pos; start += step) {
+            if ((b & (1L << start)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ands the first n words of w with themselves shifted down by shift bits
+     *
+     * @param w words to update
+     * @param n number of words in use
+     * @param shift number of bits to shift by
+     *
+     * @pre 0 {@code <} n {@code <=} w.length AND shift {@code >=} 0
+     *
+     * @post [bit i of w = #bit i of w AND #bit (i + shift) of w, bits past n words count as clear]
+     */
+    private static void andShifted(long[] w, int n, int shift) {
+        int words = shift >>> 6;
+        int offset = shift & 63;
+        for (int i = 0; i < n; i++) {
+            int src = i + words;
+            long v = 0;
+            if (src < n) {
+                v = w[src] >>> offset;
+                if (offset != 0 && src + 1 < n) {
+                    v |= w[src + 1] << (64 - offset);
+                }
+            }
+            w[i] &= v;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.util.*;
  *                  num_to_win = numToWin
  *
  * @Invariants      [char in board contains empty space or player character] AND
+ *                  [players holds each key of board once] AND
  *                  MIN_COLUMNS {@code <=} numColumns {@code <=} MAX_COLUMNS AND
  *                  MIN_ROWS {@code <=}  numRows {@code <=} MAX_ROWS AND
  *                  MIN_NUM_TO_WIN {@code <=} numToWin {@code <=} MAX_NUM_TO_WIN
@@ -18,9 +19,8 @@ import java.util.*;
 public class GameBoardMem extends AbsGameBoard implements IGameBoard{
     private Map<Character, List<BoardPosition>> board = new HashMap<Character, List<BoardPosition>>();
 
-    private final int numRows;
-    private final int numColumns;
-    private final int numToWin;
+    //The keys of board, so whatsAtPos can go through them without an iterator
+    private List<Character> players = new ArrayList<>();
 
     /**
      * Constructor creates a new board and initializes the variables
@@ -34,50 +34,59 @@ public class GameBoardMem extends AbsGameBoard implements IGameBoard{
      *       numToWin = w
      */
     public GameBoardMem(int r, int c, int w) {
-        numRows = r;
-        numColumns = c;
-        numToWin = w;
+        super(r, c, w);
     }
 
-    public int getNumRows() {
-        return numRows;
-    }
-
-    public int getNumColumns() {
-        return numColumns;
-    }
-
-    public int getNumToWin() {
-        return numToWin;
-    }
-
-    public void placeToken(char p, int c) {
+    protected void storeToken(char p, int r, int c) {
         if (!board.containsKey(p)) {
             board.put(p, new ArrayList<>());
+            players.add(p);
         }
-        for (int i = 0; i < numRows; i++) {
-            if (whatsAtPos(new BoardPosition(i, c)) == ' ') {
-                board.get(p).add(new BoardPosition(i, c));
+        board.get(p).add(BoardPosition.valueOf(r, c));
+    }
+
+    protected void clearToken(char p, int r, int c) {
+        //Undo removes the latest token, so search the list from the end
+        List<BoardPosition> positions = board.get(p);
+        for (int i = positions.size() - 1; i >= 0; i--) {
+            BoardPosition current = positions.get(i);
+            if (current.getRow() == r && current.getColumn() == c) {
+                positions.remove(i);
                 break;
             }
         }
+        if (positions.isEmpty()) {
+            board.remove(p);
+            players.remove(Character.valueOf(p));
+        }
+    }
+
+    @Override
+    protected void clearTokens() {
+        //Looking up each token would search the lists, dropping them all at once doesn't
+        board.clear();
+        players.clear();
     }
 
-    public char whatsAtPos(BoardPosition pos) {
-        for (HashMap.Entry<Character, List<BoardPosition>> map : board.entrySet()) {
-            if (isPlayerAtPos(pos, map.getKey())) {
-                return map.getKey();
+    public char whatsAtPos(int r, int c) {
+        for (int i = 0; i < players.size(); i++) {
+            char p = players.get(i);
+            if (isPlayerAtPos(r, c, p)) {
+                return p;
             }
         }
         return ' ';
     }
 
-    public boolean isPlayerAtPos(BoardPosition pos, char player) {
-        if (!board.containsKey(player)) {
+    @Override
+    public boolean isPlayerAtPos(int r, int c, char player) {
+        List<BoardPosition> positions = board.get(player);
+        if (positions == null) {
             return false;
         }
-        for (BoardPosition current : board.get(player)) {
-            if (current.equals(pos)) {
+        for (int i = 0; i < positions.size(); i++) {
+            BoardPosition current = positions.get(i);
+            if (current.getRow() == r && current.getColumn() == c) {
                 return true;
             }
         }
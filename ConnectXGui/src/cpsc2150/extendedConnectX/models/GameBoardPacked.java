@@ -0,0 +1,115 @@
+package cpsc2150.extendedConnectX.models;
+
+/**
+ * <p>This class, GameBoardPacked, keeps track of the game board in one flat
+ * array with 4 bits per cell. A cell holds 0 when it is empty, otherwise the
+ * index of its player plus one. MAX_PLAYERS is 10, so 4 bits are enough,
+ * and the player characters are only looked up at the edges of the API.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Correspondences self = [players[n - 1] where n is nibble (r * numColumns + c) of cells,
+ *                          or ' ' when n = 0]
+ *                  num_rows = numRows
+ *                  num_columns = numColumns
+ *                  num_to_win = numToWin
+ *
+ * @Invariants      [every nibble of cells is 0 or in 1 to numPlayers] AND
+ *                  0 {@code <=} numPlayers {@code <=} MAX_PLAYERS AND
+ *                  MIN_COLUMNS {@code <=} numColumns {@code <=} MAX_COLUMNS AND
+ *                  MIN_ROWS {@code <=}  numRows {@code <=} MAX_ROWS AND
+ *                  MIN_NUM_TO_WIN {@code <=} numToWin {@code <=} MAX_NUM_TO_WIN
+ */
+public class GameBoardPacked extends AbsGameBoard implements IGameBoard {
+
+    private static final int CELL_BITS = 4;
+    private static final int CELLS_PER_WORD = 64 / CELL_BITS;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+
+    private final long[] cells;
+    private final char[] players = new char[MAX_PLAYERS];
+    private int numPlayers;
+
+    /**
+     * Constructor creates a new board with every cell empty
+     *
+     * @param r number of rows
+     * @param c number of columns
+     * @param w number in a row to win
+     *
+     * @post [every nibble in cells is 0] AND
+     *       numRows = r AND
+     *       numColumns = c AND
+     *       numToWin = w
+     */
+    public GameBoardPacked(int r, int c, int w) {
+        super(r, c, w);
+        cells = new long[(r * c + CELLS_PER_WORD - 1) / CELLS_PER_WORD];
+    }
+
+    protected void storeToken(char p, int r, int c) {
+        int i = r * getNumColumns() + c;
+        long value = playerIndex(p, true) + 1;
+        cells[i / CELLS_PER_WORD] |= value << (i % CELLS_PER_WORD * CELL_BITS);
+    }
+
+    protected void clearToken(char p, int r, int c) {
+        int i = r * getNumColumns() + c;
+        cells[i / CELLS_PER_WORD] &= ~(CELL_MASK << (i % CELLS_PER_WORD * CELL_BITS));
+    }
+
+    public char whatsAtPos(int r, int c) {
+        int value = cellAt(r, c);
+        return value == 0 ? ' ' : players[value - 1];
+    }
+
+    @Override
+    public boolean isPlayerAtPos(int r, int c, char player) {
+        int i = playerIndex(player, false);
+        return i >= 0 && cellAt(r, c) == i + 1;
+    }
+
+    /**
+     * Returns the nibble stored for (r, c)
+     *
+     * @param r row
+     * @param c column
+     *
+     * @return 0 if (r, c) is empty, otherwise the index of its player plus one
+     *
+     * @pre 0 {@code <=} r {@code <} num_rows AND 0 {@code <=} c {@code <} num_columns
+     *
+     * @post self = #self AND cellAt = [nibble (r * numColumns + c) of cells]
+     */
+    private int cellAt(int r, int c) {
+        int i = r * getNumColumns() + c;
+        return (int) ((cells[i / CELLS_PER_WORD] >>> (i % CELLS_PER_WORD * CELL_BITS)) & CELL_MASK);
+    }
+
+    /**
+     * Returns the index of player p in players
+     *
+     * @param p player character
+     * @param add whether to give p an index if it doesn't have one
+     *
+     * @return index of p, -1 if p has none and add is false
+     *
+     * @pre [add is false OR p has an index OR numPlayers {@code <} MAX_PLAYERS]
+     *
+     * @post playerIndex = [index of p in players] AND
+     *       [p is added to players iff add and p was not in players]
+     */
+    private int playerIndex(char p, boolean add) {
+        for (int i = 0; i < numPlayers; i++) {
+            if (players[i] == p) {
+                return i;
+            }
+        }
+        if (!add) {
+            return -1;
+        }
+        players[numPlayers] = p;
+        return numPlayers++;
+    }
+}
@@ -0,0 +1,159 @@
+package cpsc2150.extendedConnectX.models;
+
+/**
+ * <p>This class, GameBoardRuns, is a GameBoard that also keeps the length of
+ * the run each token belongs to in the four win directions. When a token is
+ * placed the runs ending next to it on either side are merged into one, the
+ * way line segments are joined, so checkForWin only has to look up the four
+ * lengths stored for the latest token.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Correspondences self = board
+ *                  num_rows = numRows
+ *                  num_columns = numColumns
+ *                  num_to_win = numToWin
+ *
+ * @Invariants      [for every direction d and every maximal run of one player in
+ *                  direction d, runs[d] at both ends of the run = length of the run] AND
+ *                  [runs[d] at the latest token = length of its run in direction d] AND
+ *                  [merged[8 * i + 2 * d] and merged[8 * i + 2 * d + 1] = the run lengths
+ *                  before and after token i that were merged in direction d]
+ */
+public class GameBoardRuns extends GameBoard implements IGameBoard {
+
+    //Row and column steps for vertical, horizontal and the two diagonals
+    private static final int[] ROW_STEP = {1, 0, 1, 1};
+    private static final int[] COL_STEP = {0, 1, 1, -1};
+
+    private final byte[][] runs;
+    private final byte[] merged;
+
+    /**
+     * Constructor creates an empty board with no runs
+     *
+     * @param r number of rows
+     * @param c number of columns
+     * @param w number to win the game
+     *
+     * @post [Each char in board contains an empty space character] AND
+     *          [every run length is 0] AND
+     *          numRows = r AND
+     *          numColumns = c AND
+     *          numToWin = w
+     */
+    public GameBoardRuns(int r, int c, int w) {
+        super(r, c, w);
+        runs = new byte[ROW_STEP.length][r * c];
+        merged = new byte[2 * ROW_STEP.length * r * c];
+    }
+
+    @Override
+    public int placeToken(char p, int c) {
+        int row = super.placeToken(p, c);
+        int move = 2 * ROW_STEP.length * (getNumTokens() - 1);
+
+        for (int d = 0; d < ROW_STEP.length; d++) {
+            int before = runLength(row - ROW_STEP[d], c - COL_STEP[d], d, p);
+            int after = runLength(row + ROW_STEP[d], c + COL_STEP[d], d, p);
+            byte total = (byte) (before + 1 + after);
+            merged[move + 2 * d] = (byte) before;
+            merged[move + 2 * d + 1] = (byte) after;
+
+            //Only the two ends of the merged run and the new token need the new length
+            runs[d][index(row - before * ROW_STEP[d], c - before * COL_STEP[d])] = total;
+            runs[d][index(row + after * ROW_STEP[d], c + after * COL_STEP[d])] = total;
+            runs[d][index(row, c)] = total;
+        }
+        return row;
+    }
+
+    @Override
+    public char removeToken(int c) {
+        int row = getColumnHeight(c) - 1;
+        int move = 2 * ROW_STEP.length * (getNumTokens() - 1);
+
+        //Split the merged runs back into the two runs they were made from
+        for (int d = 0; d < ROW_STEP.length; d++) {
+            int before = merged[move + 2 * d];
+            int after = merged[move + 2 * d + 1];
+            runs[d][index(row, c)] = 0;
+            if (before > 0) {
+                runs[d][index(row - before * ROW_STEP[d], c - before * COL_STEP[d])] = (byte) before;
+            }
+            if (after > 0) {
+                runs[d][index(row + after * ROW_STEP[d], c + after * COL_STEP[d])] = (byte) after;
+            }
+        }
+        return super.removeToken(c);
+    }
+
+    @Override
+    protected void clearTokens() {
+        //Run lengths are only ever stored at positions that hold tokens
+        for (int c = 0; c < getNumColumns(); c++) {
+            for (int r = getColumnHeight(c) - 1; r >= 0; r--) {
+                for (int d = 0; d < ROW_STEP.length; d++) {
+                    runs[d][index(r, c)] = 0;
+                }
+            }
+        }
+        super.clearTokens();
+    }
+
+    @Override
+    public boolean checkForWin(int c) {
+        int height = getColumnHeight(c);
+        if (height == 0) {
+            return false;
+        }
+
+        int i = index(height - 1, c);
+        for (int d = 0; d < ROW_STEP.length; d++) {
+            if (runs[d][i] >= getNumToWin()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the length of the run of player p in direction d that ends at (r, c)
+     *
+     * @param r row of the end of the run
+     * @param c column of the end of the run
+     * @param d direction index
+     * @param p player character
+     *
+     * @return runs[d] at (r, c) if p is there, otherwise 0
+     *
+     * @pre [(r, c) is next to an empty position or the latest token in direction d]
+     *
+     * @post self = #self AND
+     *       runLength = [length of p's run ending at (r, c), 0 if off the board or not p]
+     */
+    private int runLength(int r, int c, int d, char p) {
+        if (r < 0 || r >= getNumRows() || c < 0 || c >= getNumColumns()) {
+            return 0;
+        }
+        if (!isPlayerAtPos(r, c, p)) {
+            return 0;
+        }
+        return runs[d][index(r, c)];
+    }
+
+    /**
+     * Returns the index of (r, c) in each runs array
+     *
+     * @param r row
+     * @param c column
+     *
+     * @return r * num_columns + c
+     *
+     * @post self = #self AND index = r * num_columns + c
+     */
+    private int index(int r, int c) {
+        return r * getNumColumns() + c;
+    }
+}
@@ -0,0 +1,107 @@
+package cpsc2150.extendedConnectX.models;
+
+/**
+ * Memory efficient version of the game that keeps each column as a stack of
+ * player indices. Tokens only ever land on top of a column, so the stack for
+ * column c holds exactly the tokens in self[0 through height - 1][c].
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Correspondences self = [players[columns[c][r]] if r {@code <} getColumnHeight(c), otherwise ' ']
+ *                  num_rows = numRows
+ *                  num_columns = numColumns
+ *                  num_to_win = numToWin
+ *
+ * @Invariants      [columns[c] is null or holds at least getColumnHeight(c) entries] AND
+ *                  columns[c].length {@code <=} numRows AND
+ *                  0 {@code <=} numPlayers {@code <=} MAX_PLAYERS AND
+ *                  MIN_COLUMNS {@code <=} numColumns {@code <=} MAX_COLUMNS AND
+ *                  MIN_ROWS {@code <=}  numRows {@code <=} MAX_ROWS AND
+ *                  MIN_NUM_TO_WIN {@code <=} numToWin {@code <=} MAX_NUM_TO_WIN
+ */
+public class GameBoardStack extends AbsGameBoard implements IGameBoard {
+
+    private static final int FIRST_CAPACITY = 4;
+
+    private final byte[][] columns;
+    private final char[] players = new char[MAX_PLAYERS];
+    private int numPlayers;
+
+    /**
+     * Constructor creates a new board with no column stacks allocated
+     *
+     * @param r number of rows
+     * @param c number of columns
+     * @param w number in a row to win
+     *
+     * @post [every column stack is empty] AND
+     *       numRows = r AND
+     *       numColumns = c AND
+     *       numToWin = w
+     */
+    public GameBoardStack(int r, int c, int w) {
+        super(r, c, w);
+        columns = new byte[c][];
+    }
+
+    protected void storeToken(char p, int r, int c) {
+        byte[] stack = columns[c];
+        if (stack == null || r == stack.length) {
+            int capacity = stack == null ? FIRST_CAPACITY : stack.length * 2;
+            byte[] grown = new byte[Math.min(capacity, getNumRows())];
+            if (stack != null) {
+                System.arraycopy(stack, 0, grown, 0, r);
+            }
+            columns[c] = stack = grown;
+        }
+        stack[r] = (byte) playerIndex(p, true);
+    }
+
+    protected void clearToken(char p, int r, int c) {
+        //Rows at or above the column height already read as empty
+    }
+
+    @Override
+    protected void clearTokens() {
+        //Every row reads as empty once reset sets the heights to 0, and the stacks are kept for the next game
+    }
+
+    public char whatsAtPos(int r, int c) {
+        if (r >= getColumnHeight(c)) {
+            return ' ';
+        }
+        return players[columns[c][r]];
+    }
+
+    @Override
+    public boolean isPlayerAtPos(int r, int c, char player) {
+        return r < getColumnHeight(c) && players[columns[c][r]] == player;
+    }
+
+    /**
+     * Returns the index of player p in players
+     *
+     * @param p player character
+     * @param add whether to give p an index if it doesn't have one
+     *
+     * @return index of p, -1 if p has none and add is false
+     *
+     * @pre [add is false OR p has an index OR numPlayers {@code <} MAX_PLAYERS]
+     *
+     * @post playerIndex = [index of p in players] AND
+     *       [p is added to players iff add and p was not in players]
+     */
+    private int playerIndex(char p, boolean add) {
+        for (int i = 0; i < numPlayers; i++) {
+            if (players[i] == p) {
+                return i;
+            }
+        }
+        if (!add) {
+            return -1;
+        }
+        players[numPlayers] = p;
+        return numPlayers++;
+    }
+}
@@ -1,5 +1,8 @@
 package cpsc2150.extendedConnectX.models;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * Interface for the GameBoard class.
  *
@@ -53,6 +56,119 @@ public interface IGameBoard {
      */
     public int getNumToWin();
 
+    /**
+     * Returns the number of tokens in column c, which is also the row
+     * the next token placed in c will land in
+     *
+     * @param c column
+     *
+     * @return number of tokens in self[0 through num_rows][c]
+     *
+     * @pre
+     *          c {@code >=} 0 AND c {@code <} num_columns
+     *
+     * @post [no changes to variables]
+     *          getColumnHeight = [number of non-space tokens in column c]
+     */
+    public int getColumnHeight(int c);
+
+    /**
+     * Returns the number of tokens on the board
+     *
+     * @return number of non-space tokens in self
+     *
+     * @post [no changes to variables]
+     *          getNumTokens = [number of non-space tokens in self]
+     */
+    public int getNumTokens();
+
+    /**
+     * Returns a 64-bit Zobrist hash of the position. Identical positions have
+     * the same hash no matter the order the tokens were placed in or the
+     * implementation holding them.
+     *
+     * @return xor of the Zobrist keys of every token in self
+     *
+     * @post [no changes to variables]
+     *          getZobristHash = [xor of key(r, c, self[r][c]) for every non-space token]
+     */
+    public default long getZobristHash() {
+        long hash = 0;
+        for (int c = 0; c < getNumColumns(); c++) {
+            for (int r = 0; r < getColumnHeight(c); r++) {
+                hash ^= ZobristKeys.key(r, c, whatsAtPos(r, c));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position flipped left to right, which
+     * is the hash of the same tokens with column c moved to
+     * num_columns - 1 - c.
+     *
+     * @return xor of the Zobrist keys of every token in the mirrored self
+     *
+     * @post [no changes to variables]
+     *          getMirroredZobristHash = [xor of key(r, num_columns - 1 - c, self[r][c])
+     *          for every non-space token]
+     */
+    public default long getMirroredZobristHash() {
+        long hash = 0;
+        int last = getNumColumns() - 1;
+        for (int c = 0; c <= last; c++) {
+            for (int r = 0; r < getColumnHeight(c); r++) {
+                hash ^= ZobristKeys.key(r, last - c, whatsAtPos(r, c));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns one key shared by the position and its mirror image, so a
+     * cache keyed by it holds one entry for both. Columns stored with the key
+     * should be passed through canonicalColumn on the way in and on the way out.
+     *
+     * @return the smaller of the hash and the mirrored hash
+     *
+     * @post [no changes to variables]
+     *          getCanonicalHash = min(getZobristHash(), getMirroredZobristHash())
+     */
+    public default long getCanonicalHash() {
+        return Math.min(getZobristHash(), getMirroredZobristHash());
+    }
+
+    /**
+     * Returns true if the canonical key is the hash of the mirror image of
+     * the position rather than of the position itself
+     *
+     * @return true iff the mirrored hash is smaller than the hash
+     *
+     * @post [no changes to variables]
+     *          isMirrored = getMirroredZobristHash() {@code <} getZobristHash()
+     */
+    public default boolean isMirrored() {
+        return getMirroredZobristHash() < getZobristHash();
+    }
+
+    /**
+     * Converts between a column of this position and the same column of the
+     * canonical position. The conversion is its own inverse, so it also turns
+     * a column stored under the canonical key back into a column of self.
+     *
+     * @param c column
+     *
+     * @return num_columns - 1 - c if isMirrored, otherwise c
+     *
+     * @pre c {@code >=} 0 AND c {@code <} num_columns
+     *
+     * @post [no changes to variables]
+     *          canonicalColumn = [num_columns - 1 - c if isMirrored(), otherwise c]
+     */
+    public default int canonicalColumn(int c) {
+        return isMirrored() ? getNumColumns() - 1 - c : c;
+    }
+
     /**
      * returns true if the column can accept another token; false
      * otherwise.
@@ -71,14 +187,7 @@ public interface IGameBoard {
      *              [Blank space in column]
      */
     public default boolean checkIfFree(int c) {
-        BoardPosition pos = null;
-        for (int i = 0; i < getNumRows(); i++) {
-            pos = new BoardPosition(i, c);
-            if (whatsAtPos(pos) == ' ') {
-                return true;
-            }
-        }
-        return false;
+        return getColumnHeight(c) < getNumRows();
     }
 
     /**
@@ -88,14 +197,52 @@ public interface IGameBoard {
      * @param p character to place
      * @param c column to place it in
      *
+     * @return row the token landed in
+     *
      * @pre
      *          (c {@code >=} 0 AND c {@code <} MAX_COLUMNS) AND
      *          (checkIfFree(c) = true)
      *
      * @post
-     *          self[next available][c] = p
+     *          self[next available][c] = p AND
+     *          placeToken = #getColumnHeight(c) AND
+     *          getColumnHeight(c) = #getColumnHeight(c) + 1
      */
-    public void placeToken(char p, int c);
+    public int placeToken(char p, int c);
+
+    /**
+     * removes the top token of column c, undoing the placeToken that put it
+     * there. Everything the board keeps about the position (column heights,
+     * token count, hash) goes back to what it was before that placement.
+     *
+     * @param c column to remove the token from
+     *
+     * @return the character that was removed
+     *
+     * @pre
+     *          (c {@code >=} 0 AND c {@code <} num_columns) AND
+     *          getColumnHeight(c) {@code >} 0 AND
+     *          [c is the column of the latest token placed that has not been removed]
+     *
+     * @post
+     *          self = [#self before the token at the top of c was placed] AND
+     *          removeToken = #self[#getColumnHeight(c) - 1][c] AND
+     *          getColumnHeight(c) = #getColumnHeight(c) - 1
+     */
+    public char removeToken(int c);
+
+    /**
+     * empties the board so a new game can be played on it. Only the positions
+     * that hold tokens are cleared, so the cost depends on how many tokens
+     * were placed, not on the size of the board.
+     *
+     * @post
+     *          [All chars in self are empty spaces] AND
+     *          getNumTokens() = 0 AND
+     *          getZobristHash() = 0 AND
+     *          [num_rows, num_columns and num_to_win are unchanged]
+     */
+    public void reset();
 
     /**
      * this function will check to see if the last token placed in
@@ -121,42 +268,23 @@ public interface IGameBoard {
      *              num_to_win vertically, horizontally, or diagonally]
      */
     public default boolean checkForWin(int c) {
-        BoardPosition pos = null;
-        BoardPosition temp = null;
-
-        boolean endFound = false;
-        int end = 0;
-        char player;
-
-        //Find the end of the column
-        for (int i = 0; i < getNumRows(); i++) {
-            if (whatsAtPos(new BoardPosition(i, c)) == ' ') {
-                if (i == 0) {
-                    return false;
-                }
-                else {
-                    endFound = true;
-                    end = i;
-                    break;
-                }
-            }
-        }
-        if (!endFound) {
-            end = getNumRows();
+        //The end of the column is its height
+        int end = getColumnHeight(c);
+        if (end == 0) {
+            return false;
         }
 
-        pos = new BoardPosition(end - 1, c);
-
         //Set player character based on end
-        player = whatsAtPos(pos);
+        int row = end - 1;
+        char player = whatsAtPos(row, c);
 
-        if (checkHorizWin(pos, player)) {
+        if (checkHorizWin(row, c, player)) {
             return true;
         }
-        else if (checkVertWin(pos, player)) {
+        else if (checkVertWin(row, c, player)) {
             return true;
         }
-        else return checkDiagWin(pos, player);
+        else return checkDiagWin(row, c, player);
     }
 
     /**
@@ -179,7 +307,7 @@ public interface IGameBoard {
     public default boolean checkTie() {
         for (int i = 0; i < getNumRows(); i++) {
             for (int j = 0; j < getNumColumns(); j++) {
-                if (whatsAtPos(new BoardPosition(i, j)) == ' ') {
+                if (whatsAtPos(i, j) == ' ') {
                     return false;
                 }
             }
@@ -189,29 +317,29 @@ public interface IGameBoard {
 
     /**
      * checks to see if the last token placed (which was placed in
-     * position pos by player p) resulted in 5 in a row horizontally. Returns
+     * position (row, col) by player p) resulted in 5 in a row horizontally. Returns
      * true if it does, otherwise false
      *
-     * @param pos position of token
+     * @param row row of token
+     * @param col column of token
      * @param p player character
      *
      * @return true iff (num_to_win in a row horizontally for player), otherwise false
      *
      * @pre
-     *          0 {@code <=} pos.getRow() {@code <} MAX_ROWS AND 0 {@code <=} pos.getColumn() {@code <} MAX_COLUMNS AND
+     *          0 {@code <=} row {@code <} MAX_ROWS AND 0 {@code <=} col {@code <} MAX_COLUMNS AND
      *          [p is valid player] AND
-     *          [pos is BoardPosition type] AND
-     *          [pos is position on the latest play] AND
-     *          [p is located at pos]
+     *          [(row, col) is position on the latest play] AND
+     *          [p is located at (row, col)]
      *
      * @post
      *          self = #self AND
      *          checkHorizWin iff
-     *              [pos is last in a row of num_to_win markers of the same type]
+     *              [(row, col) is last in a row of num_to_win markers of the same type]
      */
-    public default boolean checkHorizWin(BoardPosition pos, char p) {
-        boolean rightSide = (pos.getColumn() == getNumColumns() - 1);
-        boolean leftSide = pos.getColumn() == 0;
+    public default boolean checkHorizWin(int row, int col, char p) {
+        boolean rightSide = (col == getNumColumns() - 1);
+        boolean leftSide = col == 0;
         boolean playerFound = true;
         int numFound = 1;
 
@@ -219,13 +347,13 @@ public interface IGameBoard {
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getColumn() + i == getNumColumns()) {
+            if (col + i == getNumColumns()) {
                 rightSide = true;
             }
             if (rightSide) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow(), pos.getColumn() + i)) == p) {
+            if (whatsAtPos(row, col + i) == p) {
                 playerFound = true;
                 ++numFound;
             }
@@ -236,45 +364,66 @@ public interface IGameBoard {
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getColumn() - i == -1) {
+            if (col - i == -1) {
                 leftSide = true;
             }
             if (leftSide) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow(), pos.getColumn() - i)) == p) {
+            if (whatsAtPos(row, col - i) == p) {
                 playerFound = true;
                 ++numFound;
             }
         }
-        return (numFound == getNumToWin());
+        return (numFound >= getNumToWin());
     }
 
     /**
-     * checks to see if the last token placed (which was placed in
-     * position pos by player p) resulted in 5 in a row vertically. Returns
-     * true if it does, otherwise false
+     * Same as {@link #checkHorizWin(int, int, char)} for a token at pos
      *
      * @param pos position of token
      * @param p player character
      *
-     * @return true iff (5 in a row vertically for player), otherise false
+     * @return true iff (num_to_win in a row horizontally for player), otherwise false
      *
      * @pre
-     *          0 {@code <=} pos.getRow() {@code <} MAX_ROWS AND 0 {@code <=} pos.getColumn() {@code <} MAX_COLUMNS AND
-     *          [p is valid player] AND
      *          [pos is BoardPosition type] AND
      *          [pos is position on the latest play] AND
      *          [p is located at pos]
      *
      * @post
      *          self = #self AND
+     *          checkHorizWin = checkHorizWin(pos.getRow(), pos.getColumn(), p)
+     */
+    public default boolean checkHorizWin(BoardPosition pos, char p) {
+        return checkHorizWin(pos.getRow(), pos.getColumn(), p);
+    }
+
+    /**
+     * checks to see if the last token placed (which was placed in
+     * position (row, col) by player p) resulted in 5 in a row vertically. Returns
+     * true if it does, otherwise false
+     *
+     * @param row row of token
+     * @param col column of token
+     * @param p player character
+     *
+     * @return true iff (5 in a row vertically for player), otherise false
+     *
+     * @pre
+     *          0 {@code <=} row {@code <} MAX_ROWS AND 0 {@code <=} col {@code <} MAX_COLUMNS AND
+     *          [p is valid player] AND
+     *          [(row, col) is position on the latest play] AND
+     *          [p is located at (row, col)]
+     *
+     * @post
+     *          self = #self AND
      *          checkVertWin iff
-     *              [pos is last in a column of num_to_win markers of the same type]
+     *              [(row, col) is last in a column of num_to_win markers of the same type]
      */
-    public default boolean checkVertWin(BoardPosition pos, char p) {
-        boolean top = (pos.getRow() == getNumRows() - 1);
-        boolean bottom = pos.getRow() == 0;
+    public default boolean checkVertWin(int row, int col, char p) {
+        boolean top = (row == getNumRows() - 1);
+        boolean bottom = row == 0;
         boolean playerFound = true;
         int numFound = 1;
 
@@ -282,13 +431,13 @@ public interface IGameBoard {
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getRow() + i == getNumRows()) {
+            if (row + i == getNumRows()) {
                 top = true;
             }
             if (top) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow() + i, pos.getColumn())) == p) {
+            if (whatsAtPos(row + i, col) == p) {
                 playerFound = true;
                 ++numFound;
             }
@@ -299,49 +448,70 @@ public interface IGameBoard {
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getRow() - i == -1) {
+            if (row - i == -1) {
                 bottom = true;
             }
             if (bottom) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow() - i, pos.getColumn())) == p) {
+            if (whatsAtPos(row - i, col) == p) {
                 playerFound = true;
                 ++numFound;
             }
         }
 
-        return (numFound == getNumToWin());
+        return (numFound >= getNumToWin());
+    }
+
+    /**
+     * Same as {@link #checkVertWin(int, int, char)} for a token at pos
+     *
+     * @param pos position of token
+     * @param p player character
+     *
+     * @return true iff (num_to_win in a row vertically for player), otherwise false
+     *
+     * @pre
+     *          [pos is BoardPosition type] AND
+     *          [pos is position on the latest play] AND
+     *          [p is located at pos]
+     *
+     * @post
+     *          self = #self AND
+     *          checkVertWin = checkVertWin(pos.getRow(), pos.getColumn(), p)
+     */
+    public default boolean checkVertWin(BoardPosition pos, char p) {
+        return checkVertWin(pos.getRow(), pos.getColumn(), p);
     }
 
     /**
      * checks to see if the last token placed (which was placed in
-     * position pos by player p) resulted in 5 in a row diagonally. Returns
+     * position (row, col) by player p) resulted in 5 in a row diagonally. Returns
      * true if it does, otherwise false
      * Note: there are two diagonals to check
      *
-     * @param pos position of token
+     * @param row row of token
+     * @param col column of token
      * @param p player character
      *
      * @return true iff (5 in a row diagonally for player), otherwise false
      *
      * @pre
-     *          0 {@code <=} pos.getRow() {@code <} MAX_ROWS AND 0 {@code <=} pos.getColumn() {@code <} MAX_COLUMNS AND
+     *          0 {@code <=} row {@code <} MAX_ROWS AND 0 {@code <=} col {@code <} MAX_COLUMNS AND
      *          [p is valid player] AND
-     *          [pos is BoardPosition type] AND
-     *          [pos is position on the latest play] AND
-     *          [p is located at pos]
+     *          [(row, col) is position on the latest play] AND
+     *          [p is located at (row, col)]
      *
      * @post
      *          self = #self AND
      *          checkDiagWin iff
-     *              [pos is last in a row diagonally of num_to_win markers of the same type]
+     *              [(row, col) is last in a row diagonally of num_to_win markers of the same type]
      */
-    public default boolean checkDiagWin(BoardPosition pos, char p) {
-        boolean rightSide = (pos.getColumn() == getNumColumns() - 1);
-        boolean leftSide = pos.getColumn() == 0;
-        boolean top = (pos.getRow() == getNumRows() - 1);
-        boolean bottom = pos.getRow() == 0;
+    public default boolean checkDiagWin(int row, int col, char p) {
+        boolean rightSide = (col == getNumColumns() - 1);
+        boolean leftSide = col == 0;
+        boolean top = (row == getNumRows() - 1);
+        boolean bottom = row == 0;
         boolean playerFound = true;
         int numFound = 1;
 
@@ -349,19 +519,19 @@ public interface IGameBoard {
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getColumn() + i == getNumColumns()) {
+            if (col + i == getNumColumns()) {
                 rightSide = true;
             }
             if (rightSide) {
                 break;
             }
-            if (pos.getRow() + i == getNumRows()) {
+            if (row + i == getNumRows()) {
                 top = true;
             }
             if (top) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow() + i, pos.getColumn() + i)) == p) {
+            if (whatsAtPos(row + i, col + i) == p) {
                 playerFound = true;
                 ++numFound;
             }
@@ -372,50 +542,54 @@ public interface IGameBoard {
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getColumn() - i == -1) {
+            if (col - i == -1) {
                 leftSide = true;
             }
             if (leftSide) {
                 break;
             }
-            if (pos.getRow() - i == -1) {
+            if (row - i == -1) {
                 bottom = true;
             }
             if (bottom) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow() - i, pos.getColumn() - i)) == p) {
+            if (whatsAtPos(row - i, col - i) == p) {
                 playerFound = true;
                 ++numFound;
             }
         }
 
         //If number to win found return true
-        if (numFound == getNumToWin()) {
+        if (numFound >= getNumToWin()) {
             return true;
         }
 
-        //Reset numFound
+        //Reset numFound and the edges, the first diagonal may have set them
         numFound = 1;
+        rightSide = (col == getNumColumns() - 1);
+        leftSide = col == 0;
+        top = (row == getNumRows() - 1);
+        bottom = row == 0;
 
         //Check top left
         playerFound = true;
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getColumn() - i == -1) {
+            if (col - i == -1) {
                 leftSide = true;
             }
             if (leftSide) {
                 break;
             }
-            if (pos.getRow() + i == getNumRows()) {
+            if (row + i == getNumRows()) {
                 top = true;
             }
             if (top) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow() + i, pos.getColumn() - i)) == p) {
+            if (whatsAtPos(row + i, col - i) == p) {
                 playerFound = true;
                 ++numFound;
             }
@@ -426,25 +600,46 @@ public interface IGameBoard {
         for (int i = 1; i < getNumToWin() && playerFound; i++) {
             playerFound = false;
 
-            if (pos.getColumn() + i == getNumColumns()) {
+            if (col + i == getNumColumns()) {
                 rightSide = true;
             }
             if (rightSide) {
                 break;
             }
-            if (pos.getRow() - i == -1) {
+            if (row - i == -1) {
                 bottom = true;
             }
             if (bottom) {
                 break;
             }
-            if (whatsAtPos(new BoardPosition(pos.getRow() - i, pos.getColumn() + i)) == p) {
+            if (whatsAtPos(row - i, col + i) == p) {
                 playerFound = true;
                 ++numFound;
             }
         }
 
-        return (numFound == getNumToWin());
+        return (numFound >= getNumToWin());
+    }
+
+    /**
+     * Same as {@link #checkDiagWin(int, int, char)} for a token at pos
+     *
+     * @param pos position of token
+     * @param p player character
+     *
+     * @return true iff (num_to_win in a row diagonally for player), otherwise false
+     *
+     * @pre
+     *          [pos is BoardPosition type] AND
+     *          [pos is position on the latest play] AND
+     *          [p is located at pos]
+     *
+     * @post
+     *          self = #self AND
+     *          checkDiagWin = checkDiagWin(pos.getRow(), pos.getColumn(), p)
+     */
+    public default boolean checkDiagWin(BoardPosition pos, char p) {
+        return checkDiagWin(pos.getRow(), pos.getColumn(), p);
     }
 
     /**
@@ -464,7 +659,28 @@ public interface IGameBoard {
      *          self = #self AND
      *          whatsAtPos = [char at pos]
      */
-    public char whatsAtPos(BoardPosition pos);
+    public default char whatsAtPos(BoardPosition pos) {
+        return whatsAtPos(pos.getRow(), pos.getColumn());
+    }
+
+    /**
+     * returns what is in the GameBoard at row r and column c without
+     * needing a BoardPosition. If no marker is there, it returns a blank space char.
+     *
+     * @param r row of token
+     * @param c column of token
+     *
+     * @return char at current game board position
+     *
+     * @pre
+     *          r {@code >=} 0 AND r {@code <} num_rows AND
+     *          c {@code >=} 0 AND c {@code <} num_columns
+     *
+     * @post
+     *          self = #self AND
+     *          whatsAtPos = self[r][c]
+     */
+    public char whatsAtPos(int r, int c);
 
     /**
      * returns true if the player is at pos; otherwise, it returns
@@ -491,6 +707,157 @@ public interface IGameBoard {
      *              [player is present at specified position]
      */
     public default boolean isPlayerAtPos(BoardPosition pos, char player) {
-        return whatsAtPos(pos) == player;
+        return isPlayerAtPos(pos.getRow(), pos.getColumn(), player);
+    }
+
+    /**
+     * returns true if the player is at row r and column c; otherwise, it
+     * returns false
+     *
+     * @param r row of token
+     * @param c column of token
+     * @param player player character
+     *
+     * @return true iff (self[r][c] = player)
+     *
+     * @pre
+     *          0 {@code <=} r {@code <} ROWS AND
+     *          0 {@code <=} c {@code <} COLUMNS
+     *
+     * @post
+     *          self = #self AND
+     *          isPlayerAtPos iff
+     *              [player is present at specified position]
+     */
+    public default boolean isPlayerAtPos(int r, int c, char player) {
+        return whatsAtPos(r, c) == player;
+    }
+
+    /**
+     * Writes the board to out in the same format as toString: a header of
+     * column numbers, then each row from the top down with cells between '|'.
+     * Cells are read with whatsAtPos(int, int), so nothing is allocated.
+     *
+     * @param out where to write the board
+     *
+     * @throws IOException if out throws it
+     *
+     * @post self = #self AND
+     *       [out has the game board content in string format appended]
+     */
+    public default void render(Appendable out) throws IOException {
+        out.append('|');
+        for (int i = 0; i < getNumColumns(); i++) {
+            appendNumber(out, i);
+            out.append('|');
+        }
+        out.append('\n');
+
+        for (int i = getNumRows() - 1; i >= 0; i--) {
+            for (int j = 0; j < getNumColumns(); j++) {
+                out.append('|');
+                out.append(whatsAtPos(i, j));
+            }
+            out.append('|').append('\n');
+        }
+    }
+
+    /**
+     * Appends the board to sb in the same format as toString. sb is grown
+     * once up front so it can be reused from move to move without resizing.
+     *
+     * @param sb StringBuilder to append to
+     *
+     * @return sb
+     *
+     * @post self = #self AND
+     *       [sb has the game board content in string format appended]
+     */
+    public default StringBuilder render(StringBuilder sb) {
+        sb.ensureCapacity(sb.length() + getRenderedLength());
+        try {
+            render((Appendable) sb);
+        } catch (IOException e) {
+            //StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return sb;
+    }
+
+    /**
+     * Returns the number of characters render writes for this board
+     *
+     * @return length of the rendered board
+     *
+     * @post [no changes to variables]
+     *          getRenderedLength = [length of toString]
+     */
+    public default int getRenderedLength() {
+        int header = 2;
+        for (int i = 0; i < getNumColumns(); i++) {
+            header += i < 10 ? 2 : (i < 100 ? 3 : 4);
+        }
+        return header + getNumRows() * (2 * getNumColumns() + 2);
+    }
+
+    /**
+     * Writes the board to out on a single line, one character per cell.
+     * Rows go from the top down and are separated by '/', empty cells are '.'.
+     *
+     * @param out where to write the board
+     *
+     * @throws IOException if out throws it
+     *
+     * @post self = #self AND
+     *       [out has the one line form of the board appended]
+     */
+    public default void renderCompact(Appendable out) throws IOException {
+        for (int i = getNumRows() - 1; i >= 0; i--) {
+            for (int j = 0; j < getNumColumns(); j++) {
+                char p = whatsAtPos(i, j);
+                out.append(p == ' ' ? '.' : p);
+            }
+            if (i > 0) {
+                out.append('/');
+            }
+        }
+    }
+
+    /**
+     * Returns the board on a single line, one character per cell
+     *
+     * @return the one line form of the board, see renderCompact
+     *
+     * @post self = #self AND
+     *       toCompactString = [rows from the top down separated by '/', '.' for empty]
+     */
+    public default String toCompactString() {
+        StringBuilder sb = new StringBuilder(getNumRows() * (getNumColumns() + 1));
+        try {
+            renderCompact(sb);
+        } catch (IOException e) {
+            //StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the decimal digits of n to out without building a String
+     *
+     * @param out where to write n
+     * @param n number to write
+     *
+     * @throws IOException if out throws it
+     *
+     * @pre n {@code >=} 0
+     *
+     * @post [out has the digits of n appended]
+     */
+    private static void appendNumber(Appendable out, int n) throws IOException {
+        if (n >= 10) {
+            appendNumber(out, n / 10);
+        }
+        out.append((char) ('0' + n % 10));
     }
 }
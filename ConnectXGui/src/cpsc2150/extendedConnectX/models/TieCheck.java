@@ -0,0 +1,141 @@
+package cpsc2150.extendedConnectX.models;
+
+import java.util.SplittableRandom;
+
+/**
+ * <p>This class, TieCheck, checks that every board's checkTie, which counts
+ * the tokens placed instead of looking at every cell, agrees with a scan of
+ * every cell. Each board plays random games, taking tokens back and
+ * starting over now and then, and the two answers are compared after every
+ * change. It prints a line per board and exits with status 1 if any answer
+ * differs.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public class TieCheck {
+
+    private static final char[] PLAYERS = {'X', 'O', 'A'};
+    private static final int GAMES = 20;
+
+    //Rows, columns and number to win of each size tried
+    private static final int[][] SIZES = {
+            {3, 3, 3},
+            {6, 7, 4},
+            {5, 17, 4},
+            {20, 30, 5}
+    };
+
+    private TieCheck() {
+    }
+
+    /**
+     * Plays random games on every board and size and compares the answers
+     *
+     * @param args seed for the random games, or none for 1
+     *
+     * @post [a line is printed for every board] AND [the program exits with status 1 if
+     *       checkTie and the scan ever disagree]
+     */
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 1);
+
+        boolean failed = false;
+        for (int[] size : SIZES) {
+            IGameBoard[] boards = {
+                    new GameBoard(size[0], size[1], size[2]),
+                    new GameBoardMem(size[0], size[1], size[2]),
+                    new GameBoardBit(size[0], size[1], size[2]),
+                    new GameBoardStack(size[0], size[1], size[2]),
+                    new GameBoardRuns(size[0], size[1], size[2]),
+                    new GameBoardPacked(size[0], size[1], size[2])
+            };
+            for (IGameBoard board : boards) {
+                long mismatches = 0;
+                int[] moves = new int[size[0] * size[1]];
+                for (int game = 0; game < GAMES; game++) {
+                    if (game % 2 == 1) {
+                        board.reset();
+                    }
+                    else {
+                        //Every other game empties the board by taking back every token instead
+                        for (int i = board.getNumTokens() - 1; i >= 0; i--) {
+                            board.removeToken(moves[i]);
+                        }
+                    }
+                    mismatches += playGame(board, moves, random);
+                }
+                failed |= mismatches > 0;
+                System.out.printf("%-15s %3dx%-3d %d games, %d wrong%n", board.getClass().getSimpleName(),
+                        size[0], size[1], GAMES, mismatches);
+            }
+        }
+
+        if (failed) {
+            System.out.println("checkTie disagrees with a full scan");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Fills board with random tokens, taking the latest one back about one
+     * move in five, and compares checkTie with a full scan after every change
+     *
+     * @param board empty board to play on
+     * @param moves where the column of every token on the board is kept, in order
+     * @param random source of the moves
+     *
+     * @return the number of times checkTie and the scan disagreed
+     *
+     * @pre board.getNumTokens() = 0 AND moves.length = board.getNumRows() * board.getNumColumns()
+     *
+     * @post [board is full] AND [moves holds the column of every token, the first placed first]
+     */
+    private static long playGame(IGameBoard board, int[] moves, SplittableRandom random) {
+        long mismatches = 0;
+        int cols = board.getNumColumns();
+        boolean full = false;
+        while (!full) {
+            int tokens = board.getNumTokens();
+            if (random.nextInt(5) == 0 && tokens > 0) {
+                //Only the latest token can be taken back
+                board.removeToken(moves[tokens - 1]);
+            }
+            else {
+                //The board isn't full, so some column to the right of a random one, wrapping, is free
+                int c = random.nextInt(cols);
+                while (!board.checkIfFree(c)) {
+                    c = c + 1 == cols ? 0 : c + 1;
+                }
+                board.placeToken(PLAYERS[tokens % PLAYERS.length], c);
+                moves[tokens] = c;
+            }
+
+            full = scanTie(board);
+            if (board.checkTie() != full) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Answers checkTie the way the original did, by looking at every cell
+     *
+     * @param board board to scan
+     *
+     * @return true iff no cell of board is empty
+     *
+     * @post board = #board AND scanTie iff [no empty positions in board]
+     */
+    private static boolean scanTie(IGameBoard board) {
+        for (int i = 0; i < board.getNumRows(); i++) {
+            for (int j = 0; j < board.getNumColumns(); j++) {
+                if (board.whatsAtPos(i, j) == ' ') {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,139 @@
+package cpsc2150.extendedConnectX.models;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * <p>This class, WinAllocationCheck, checks that checkForWin allocates
+ * nothing on any board, using the JVM's count of the bytes each thread has
+ * allocated. Every board first checks each column enough times for the JIT
+ * to compile checkForWin, then the bytes allocated by many more checks are
+ * counted. The count is taken a few times and the least is kept, since the
+ * JIT can allocate once when it recompiles in the middle of one. It prints
+ * a line per board and exits with status 1 if any board allocated, or if
+ * the JVM can't count allocations.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+public class WinAllocationCheck {
+
+    private static final char[] PLAYERS = {'X', 'O', 'A'};
+    private static final int WARMUP_ROUNDS = 20000;
+    private static final int COUNTED_ROUNDS = 1000;
+    private static final int COUNTS = 5;
+
+    //Where the answers go, so the JIT can't drop the calls
+    private static volatile boolean sink;
+
+    //Rows, columns, number to win and tokens to place before checking
+    private static final int[][] SIZES = {
+            {6, 7, 4, 20},
+            {20, 20, 5, 150},
+            {100, 100, 25, 2000}
+    };
+
+    private WinAllocationCheck() {
+    }
+
+    /**
+     * Counts the bytes checkForWin allocates on every board and size
+     *
+     * @param args not used
+     *
+     * @post [a line is printed for every board] AND [the program exits with status 1 if
+     *       any board allocated or allocations can't be counted]
+     */
+    public static void main(String[] args) {
+        //Allocation counts are a HotSpot extension of the standard bean
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("This JVM can't count the bytes a thread allocates");
+            System.exit(1);
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("This JVM can't count the bytes a thread allocates");
+            System.exit(1);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        boolean failed = false;
+        for (int[] size : SIZES) {
+            IGameBoard[] boards = {
+                    new GameBoard(size[0], size[1], size[2]),
+                    new GameBoardMem(size[0], size[1], size[2]),
+                    new GameBoardBit(size[0], size[1], size[2]),
+                    new GameBoardStack(size[0], size[1], size[2]),
+                    new GameBoardRuns(size[0], size[1], size[2]),
+                    new GameBoardPacked(size[0], size[1], size[2])
+            };
+            for (IGameBoard board : boards) {
+                fill(board, size[3]);
+                int rounds = Math.max(1, WARMUP_ROUNDS / board.getNumColumns());
+                sink = checkEveryColumn(board, rounds);
+
+                long bytes = Long.MAX_VALUE;
+                for (int i = 0; i < COUNTS && bytes > 0; i++) {
+                    long before = threads.getThreadAllocatedBytes(thread);
+                    sink = checkEveryColumn(board, COUNTED_ROUNDS);
+                    bytes = Math.min(bytes, threads.getThreadAllocatedBytes(thread) - before);
+                }
+
+                failed |= bytes != 0;
+                System.out.printf("%-15s %3dx%-3d %,d rounds of every column, %,d bytes%n",
+                        board.getClass().getSimpleName(), size[0], size[1], COUNTED_ROUNDS, bytes);
+            }
+        }
+
+        if (failed) {
+            System.out.println("checkForWin allocates");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Places tokens in a fixed spread of columns, skipping full ones
+     *
+     * @param board empty board to fill
+     * @param tokens number of tokens to place
+     *
+     * @pre tokens {@code <=} board.getNumRows() * board.getNumColumns()
+     *
+     * @post board.getNumTokens() = tokens
+     */
+    private static void fill(IGameBoard board, int tokens) {
+        int cols = board.getNumColumns();
+        int c = 0;
+        for (int i = 0; i < tokens; i++) {
+            //7 columns apart, wrapping, so runs of every direction get built
+            c = (c + 7) % cols;
+            while (!board.checkIfFree(c)) {
+                c = c + 1 == cols ? 0 : c + 1;
+            }
+            board.placeToken(PLAYERS[i % PLAYERS.length], c);
+        }
+    }
+
+    /**
+     * Calls checkForWin on every column with a token, rounds times over
+     *
+     * @param board board to check
+     * @param rounds number of times to check every column
+     *
+     * @return the exclusive or of every answer
+     *
+     * @post board = #board
+     */
+    private static boolean checkEveryColumn(IGameBoard board, int rounds) {
+        boolean wins = false;
+        for (int r = 0; r < rounds; r++) {
+            for (int c = 0; c < board.getNumColumns(); c++) {
+                if (board.getColumnHeight(c) > 0) {
+                    wins ^= board.checkForWin(c);
+                }
+            }
+        }
+        return wins;
+    }
+}
@@ -0,0 +1,81 @@
+package cpsc2150.extendedConnectX.models;
+
+import java.util.Arrays;
+
+/**
+ * <p>This class, ZobristKeys, holds the random 64-bit key of every
+ * (row, column, player) on the largest legal board. The hash of a position
+ * is the xor of the keys of its tokens, so it does not depend on the order
+ * the tokens were placed in and can be updated with one xor per move.</p>
+ *
+ * <p>The keys come from a fixed seed so every board implementation, and
+ * every run of the program, agrees on the hash of a position.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ */
+final class ZobristKeys {
+
+    private static final long SEED = 0x2150C0DEL;
+
+    //Player tokens in the order the controller hands them out
+    private static final String TOKENS = "XOABCDEFGH";
+    private static final byte[] TOKEN_INDEX = new byte[128];
+
+    private static final long[] KEYS =
+            new long[IGameBoard.MAX_ROWS * IGameBoard.MAX_COLUMNS * IGameBoard.MAX_PLAYERS];
+
+    static {
+        Arrays.fill(TOKEN_INDEX, (byte) -1);
+        for (int i = 0; i < TOKENS.length(); i++) {
+            TOKEN_INDEX[TOKENS.charAt(i)] = (byte) i;
+        }
+
+        long state = SEED;
+        for (int i = 0; i < KEYS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            KEYS[i] = mix(state);
+        }
+    }
+
+    private ZobristKeys() {
+    }
+
+    /**
+     * Returns the key for player p at row r and column c
+     *
+     * @param r row
+     * @param c column
+     * @param p player character
+     *
+     * @return random key for (r, c, p)
+     *
+     * @pre 0 {@code <=} r {@code <} MAX_ROWS AND 0 {@code <=} c {@code <} MAX_COLUMNS
+     *
+     * @post key = [the same value for every call with the same r, c and p]
+     */
+    static long key(int r, int c, char p) {
+        int player = p < TOKEN_INDEX.length ? TOKEN_INDEX[p] : -1;
+        int cell = r * IGameBoard.MAX_COLUMNS + c;
+        if (player < 0) {
+            //Tokens the controller never hands out still get a stable key
+            return mix(SEED ^ ((long) cell << 16 | p));
+        }
+        return KEYS[cell * IGameBoard.MAX_PLAYERS + player];
+    }
+
+    /**
+     * Scrambles the bits of z (the SplitMix64 finalizer)
+     *
+     * @param z value to scramble
+     *
+     * @return scrambled value
+     *
+     * @post mix = [the same value for every call with the same z]
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
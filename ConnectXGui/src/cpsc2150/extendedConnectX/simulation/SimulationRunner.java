@@ -0,0 +1,380 @@
+package cpsc2150.extendedConnectX.simulation;
+
+import cpsc2150.extendedConnectX.ai.*;
+import cpsc2150.extendedConnectX.models.*;
+
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>This class, SimulationRunner, plays games between computer players
+ * without a screen, on every core at once, and reports how they did. It
+ * works on the {@link IGameBoard} implementations directly and never
+ * touches Swing, so it can run on a machine with no display.</p>
+ *
+ * <p>Each seat is given an engine by name: {@code random},
+ * {@code negamax:DEPTH}, {@code id:MILLIS} or {@code mcts:MILLIS}. Every
+ * thread builds its own engines, since they keep state between moves.
+ * Run with {@code --help} to see every option.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [numRows, numColumns and numToWin are legal for IGameBoard] AND
+ *                  MIN_PLAYERS {@code <=} numPlayers {@code <=} MAX_PLAYERS AND
+ *                  engineNames.length = numPlayers
+ */
+public class SimulationRunner {
+
+    private static final char[] PLAYERS = {'X', 'O', 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+
+    //Smaller than an engine's default, since every thread has a table per seat
+    private static final int TABLE_BITS = 16;
+
+    //Longest an engine may think per move, mcts less since its tree keeps every node it makes
+    private static final long MAX_ID_MILLIS = 60000;
+    private static final long MAX_MCTS_MILLIS = 10000;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Options (defaults in brackets):",
+            "  --rows N        number of rows [6]",
+            "  --cols N        number of columns [7]",
+            "  --win N         number in a row to win [4]",
+            "  --players N     number of players [2]",
+            "  --games N       number of games to play [100000]",
+            "  --threads N     threads to play on [every core]",
+            "  --board NAME    GameBoard, GameBoardMem, GameBoardBit, GameBoardStack,",
+            "                  GameBoardRuns or GameBoardPacked [GameBoardBit]",
+            "  --engines LIST  comma separated engine for each seat, the last one is",
+            "                  used for the rest: random, negamax:DEPTH (up to rows",
+            "                  times cols), id:MILLIS (up to " + MAX_ID_MILLIS + ") or mcts:MILLIS",
+            "                  (up to " + MAX_MCTS_MILLIS + ") [random]; negamax and id only",
+            "                  play 2 player games",
+            "  --report MILLIS time between progress lines [1000]",
+            "  --seed N        seed for the random players [the clock]");
+
+    private final int numRows;
+    private final int numColumns;
+    private final int numToWin;
+    private final int numPlayers;
+    private final String boardName;
+    private final String[] engineNames;
+
+    /**
+     * Constructor creates a runner for games of the given size and players
+     *
+     * @param r number of rows
+     * @param c number of columns
+     * @param w number in a row to win
+     * @param np number of players
+     * @param board simple class name of the board implementation to play on
+     * @param engines engine name for each seat
+     *
+     * @pre [r, c and w are legal for IGameBoard] AND
+     *      MIN_PLAYERS {@code <=} np {@code <=} MAX_PLAYERS AND engines.length = np AND
+     *      [board and every engine name are ones this class knows]
+     *
+     * @post numRows = r AND numColumns = c AND numToWin = w AND numPlayers = np AND
+     *       boardName = board AND engineNames = engines
+     */
+    public SimulationRunner(int r, int c, int w, int np, String board, String[] engines) {
+        numRows = r;
+        numColumns = c;
+        numToWin = w;
+        numPlayers = np;
+        boardName = board;
+        engineNames = engines;
+    }
+
+    /**
+     * Reads the options, plays the games and prints the results
+     *
+     * @param args options as listed by --help
+     *
+     * @post [the games are played and a summary is printed, or the problem with args is]
+     */
+    public static void main(String[] args) {
+        int rows = 6;
+        int cols = 7;
+        int win = 4;
+        int np = 2;
+        long games = 100000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String board = "GameBoardBit";
+        String engineList = "random";
+        long report = 1000;
+        long seed = System.nanoTime();
+
+        SimulationRunner runner;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--rows": rows = Integer.parseInt(value); break;
+                    case "--cols": cols = Integer.parseInt(value); break;
+                    case "--win": win = Integer.parseInt(value); break;
+                    case "--players": np = Integer.parseInt(value); break;
+                    case "--games": games = Long.parseLong(value); break;
+                    case "--threads": threads = Integer.parseInt(value); break;
+                    case "--board": board = value; break;
+                    case "--engines": engineList = value; break;
+                    case "--report": report = Long.parseLong(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    default: throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+            checkRange("--rows", rows, IGameBoard.MIN_ROWS, IGameBoard.MAX_ROWS);
+            checkRange("--cols", cols, IGameBoard.MIN_COLUMNS, IGameBoard.MAX_COLUMNS);
+            checkRange("--win", win, IGameBoard.MIN_NUM_TO_WIN, Math.min(IGameBoard.MAX_NUM_TO_WIN, Math.max(rows, cols)));
+            checkRange("--players", np, IGameBoard.MIN_PLAYERS, IGameBoard.MAX_PLAYERS);
+            checkRange("--threads", threads, 1, Integer.MAX_VALUE);
+            checkRange("--report", report, 1, Long.MAX_VALUE);
+
+            String[] listed = engineList.split(",");
+            String[] engines = new String[np];
+            for (int i = 0; i < np; i++) {
+                engines[i] = listed[Math.min(i, listed.length - 1)].trim();
+            }
+
+            runner = new SimulationRunner(rows, cols, win, np, board, engines);
+            //Build one of everything now so a bad name is reported before any thread starts
+            runner.newBoard();
+            for (int i = 0; i < np; i++) {
+                runner.newEngine(i, 0);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return;
+        }
+
+        System.out.println(rows + "x" + cols + ", " + win + " to win, " + np + " players on "
+                + board + ", " + String.join(" vs ", runner.engineNames) + ", " + threads + " threads");
+        runner.run(games, threads, seed, report, System.out);
+    }
+
+    /**
+     * Plays games games on threads threads, printing the totals every
+     * report milliseconds and once more at the end
+     *
+     * @param games number of games to play
+     * @param threads number of threads to play on
+     * @param seed seed the random players' seeds are drawn from
+     * @param report milliseconds between progress lines
+     * @param out where to print the progress lines
+     *
+     * @return totals of every game played
+     *
+     * @pre games {@code >=} 0 AND threads {@code >=} 1 AND report {@code >} 0
+     *
+     * @post run = [totals of games games]
+     */
+    public SimulationStats run(long games, int threads, long seed, long report, PrintStream out) {
+        SimulationStats stats = new SimulationStats(numPlayers);
+        AtomicLong claimed = new AtomicLong();
+        SplittableRandom seeds = new SplittableRandom(seed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            Future<?>[] workers = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                long workerSeed = seeds.nextLong();
+                workers[i] = pool.submit(() -> playGames(games, claimed, stats, workerSeed));
+            }
+
+            for (Future<?> worker : workers) {
+                //Wake up every report interval to print how far along the games are
+                while (!finished(worker, report)) {
+                    out.println(stats.summary(PLAYERS, System.nanoTime() - start));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        out.println(stats.summary(PLAYERS, System.nanoTime() - start));
+        return stats;
+    }
+
+    /**
+     * Keeps claiming and playing games until games games have been claimed
+     *
+     * @param games number of games to play in total
+     * @param claimed number of games claimed by every thread so far
+     * @param stats totals to add each game to
+     * @param seed seed for this thread's random players
+     *
+     * @post [every game this thread claimed is recorded in stats]
+     */
+    private void playGames(long games, AtomicLong claimed, SimulationStats stats, long seed) {
+        ISearchEngine[] seats = new ISearchEngine[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            seats[i] = newEngine(i, seed + i);
+        }
+
+        while (claimed.getAndIncrement() < games) {
+            IGameBoard board = newBoard();
+            int turn = 0;
+            while (true) {
+                int c = seats[turn].search(board, PLAYERS, numPlayers, turn).getColumn();
+                board.placeToken(PLAYERS[turn], c);
+                if (board.checkForWin(c)) {
+                    stats.record(turn, board.getNumTokens());
+                    break;
+                }
+                if (board.checkTie()) {
+                    stats.record(-1, board.getNumTokens());
+                    break;
+                }
+                turn = turn + 1 == numPlayers ? 0 : turn + 1;
+            }
+        }
+
+        for (ISearchEngine seat : seats) {
+            seat.shutdown();
+        }
+    }
+
+    /**
+     * Returns a new empty board of the implementation named boardName
+     *
+     * @return empty board with numRows rows, numColumns columns and numToWin to win
+     *
+     * @post newBoard = [new empty board of kind boardName]
+     *
+     * @throws IllegalArgumentException if boardName is not a board this class knows
+     */
+    private IGameBoard newBoard() {
+        switch (boardName) {
+            case "GameBoard": return new GameBoard(numRows, numColumns, numToWin);
+            case "GameBoardMem": return new GameBoardMem(numRows, numColumns, numToWin);
+            case "GameBoardBit": return new GameBoardBit(numRows, numColumns, numToWin);
+            case "GameBoardStack": return new GameBoardStack(numRows, numColumns, numToWin);
+            case "GameBoardRuns": return new GameBoardRuns(numRows, numColumns, numToWin);
+            case "GameBoardPacked": return new GameBoardPacked(numRows, numColumns, numToWin);
+            default: throw new IllegalArgumentException("Unknown board " + boardName);
+        }
+    }
+
+    /**
+     * Returns a new engine of the kind named for seat
+     *
+     * @param seat seat the engine plays
+     * @param seed seed for a random player
+     *
+     * @return engine named by engineNames[seat]
+     *
+     * @pre 0 {@code <=} seat {@code <} numPlayers
+     *
+     * @post newEngine = [new engine of kind engineNames[seat]]
+     *
+     * @throws IllegalArgumentException if engineNames[seat] is not an engine this class knows
+     */
+    private ISearchEngine newEngine(int seat, long seed) {
+        String name = engineNames[seat];
+        int colon = name.indexOf(':');
+        String kind = colon < 0 ? name : name.substring(0, colon);
+        long setting = 0;
+        if (colon >= 0) {
+            setting = Long.parseLong(name.substring(colon + 1));
+        }
+        else if (!kind.equals("random")) {
+            throw new IllegalArgumentException("Engine " + name + " needs a setting, like " + name + ":4");
+        }
+
+        switch (kind) {
+            case "random":
+                return new RandomEngine(seed);
+            case "negamax":
+                checkTwoPlayers(name);
+                //A game never lasts longer than the board has cells
+                checkRange(name, setting, 1, numRows * numColumns);
+                return new NegamaxEngine((int) setting, TABLE_BITS);
+            case "id":
+                checkTwoPlayers(name);
+                checkRange(name, setting, 1, MAX_ID_MILLIS);
+                return new IterativeDeepeningEngine(setting, TABLE_BITS);
+            case "mcts":
+                checkRange(name, setting, 1, MAX_MCTS_MILLIS);
+                return new MctsEngine(setting, 1, seed);
+            default:
+                throw new IllegalArgumentException("Unknown engine " + name);
+        }
+    }
+
+    /**
+     * Waits up to millis milliseconds for worker to finish
+     *
+     * @param worker games running on a pool thread
+     * @param millis longest time to wait
+     *
+     * @return true iff worker is done
+     *
+     * @post [worker is done or millis milliseconds have passed]
+     *
+     * @throws IllegalStateException if worker failed
+     */
+    private static boolean finished(Future<?> worker, long millis) {
+        try {
+            worker.get(millis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * Checks that a negamax based engine is in a game it scores right
+     *
+     * @param engine name of the engine
+     *
+     * @post [nothing changes if numPlayers = NegamaxEngine.NUM_PLAYERS]
+     *
+     * @throws IllegalArgumentException if the game has a different number of players
+     */
+    private void checkTwoPlayers(String engine) {
+        if (numPlayers != NegamaxEngine.NUM_PLAYERS) {
+            throw new IllegalArgumentException(engine + " only plays " + NegamaxEngine.NUM_PLAYERS
+                    + " player games, use mcts for " + numPlayers);
+        }
+    }
+
+    /**
+     * Checks that an option's value is between min and max
+     *
+     * @param option name of the option
+     * @param value value given
+     * @param min smallest legal value
+     * @param max largest legal value
+     *
+     * @post [nothing changes if min {@code <=} value {@code <=} max]
+     *
+     * @throws IllegalArgumentException if value is out of range
+     */
+    private static void checkRange(String option, long value, long min, long max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(option + " must be between " + min + " and " + max);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cpsc2150.extendedConnectX.simulation;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>This class, SimulationStats, adds up the results of games played on
+ * many threads at once. Only running totals are kept, so memory use does
+ * not grow with the number of games, and the counters are
+ * {@link LongAdder}s so threads recording games at the same time don't
+ * slow each other down.</p>
+ *
+ * @author Davis Little
+ * @version 1.0
+ *
+ * @Invariants      [games = ties + the sum of wins] AND
+ *                  [shortest {@code <=} every game length {@code <=} longest]
+ */
+public class SimulationStats {
+
+    private final int numPlayers;
+    private final LongAdder[] wins;
+    private final LongAdder ties = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LongAdder moves = new LongAdder();
+    private final LongAccumulator shortest = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator longest = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructor creates empty totals for a game with np players
+     *
+     * @param np number of players
+     *
+     * @pre MIN_PLAYERS {@code <=} np {@code <=} MAX_PLAYERS
+     *
+     * @post numPlayers = np AND [every total is 0]
+     */
+    public SimulationStats(int np) {
+        numPlayers = np;
+        wins = new LongAdder[np];
+        for (int i = 0; i < np; i++) {
+            wins[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Adds one finished game to the totals
+     *
+     * @param winner seat of the winner, -1 for a tie
+     * @param length number of tokens placed in the game
+     *
+     * @pre -1 {@code <=} winner {@code <} numPlayers AND length {@code >=} 1
+     *
+     * @post [games, moves and the winner's or tie total go up] AND
+     *       [shortest and longest include length]
+     */
+    public void record(int winner, int length) {
+        if (winner < 0) {
+            ties.increment();
+        }
+        else {
+            wins[winner].increment();
+        }
+        moves.add(length);
+        shortest.accumulate(length);
+        longest.accumulate(length);
+        games.increment();
+    }
+
+    /**
+     * Returns the number of games recorded so far
+     *
+     * @return games
+     *
+     * @post getGames = games
+     */
+    public long getGames() {
+        return games.sum();
+    }
+
+    /**
+     * Returns the number of moves made in the games recorded so far
+     *
+     * @return moves
+     *
+     * @post getMoves = moves
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    /**
+     * Returns a summary of the totals, with rates worked out over nanos
+     * nanoseconds. Games still being recorded may be partly counted.
+     *
+     * @param players player characters in turn order
+     * @param nanos time the games took so far
+     *
+     * @return games, win rate of each player, tie rate, game lengths and
+     *         moves per second
+     *
+     * @pre players.length {@code >=} numPlayers AND nanos {@code >} 0
+     *
+     * @post summary = [the totals as one line of text]
+     */
+    public String summary(char[] players, long nanos) {
+        long n = games.sum();
+        long m = moves.sum();
+        StringBuilder out = new StringBuilder();
+        out.append(n).append(" games");
+        if (n > 0) {
+            for (int i = 0; i < numPlayers; i++) {
+                out.append(String.format(", %c %.1f%%", players[i], 100.0 * wins[i].sum() / n));
+            }
+            out.append(String.format(", tie %.1f%%", 100.0 * ties.sum() / n));
+            out.append(String.format(", length %d/%.1f/%d", shortest.get(), (double) m / n, longest.get()));
+        }
+        out.append(String.format(", %,.0f moves/s", m * 1e9 / nanos));
+        return out.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package cpsc2150.extendedConnectX.views;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import javax.swing.*;
+
+/**
+ * This class is the board of our Extended Connect X screen. It is one component
+ * that draws a row of column arrows and the grid of tokens itself, instead of
+ * one button per cell, so even the largest boards are quick to build and cheap
+ * to update. A click anywhere in a column picks that column.
+ * <p>
+ * Cells are stored the same way the models store them, row 0 at the bottom,
+ * and are drawn with row 0 at the bottom of the component.
+ *
+ * @version 2.0
+ */
+class BoardCanvas extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    //Largest and smallest side of a cell the board asks for, in pixels
+    private static final int CELL_SIZE = 50, MIN_CELL_SIZE = 8;
+
+    //Largest board the board asks for, so big boards still fit on a screen
+    private static final int MAX_WIDTH = 1200, MAX_HEIGHT = 800;
+
+    //Down arrow character, the same text the column buttons used to show
+    private static final String ARROW = Character.toString((char) 8595);
+
+    private final int rows;
+    private final int cols;
+    private final char[] cells;
+    private IntConsumer columnListener;
+
+    /**
+     * <p>
+     * This creates an empty board.
+     * </p>
+     *
+     * @param row the number of rows in the board
+     * @param col the number of columns in the board
+     *
+     * @pre row {@code >} 0 and col {@code >} 0
+     * @post [ an empty row x col board with a row of column arrows above it ]
+     */
+    BoardCanvas(int row, int col) {
+        rows = row;
+        cols = col;
+        cells = new char[row * col];
+
+        int cell = Math.max(MIN_CELL_SIZE,
+                Math.min(CELL_SIZE, Math.min(MAX_WIDTH / cols, MAX_HEIGHT / (rows + 1))));
+        setPreferredSize(new Dimension(cell * cols, cell * (rows + 1)));
+        setOpaque(true);
+        setBackground(Color.WHITE);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (columnListener != null && e.getX() >= 0 && e.getX() < getWidth()) {
+                    columnListener.accept(columnAt(e.getX()));
+                }
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * This sets what is told the column of every click on the board.
+     * </p>
+     *
+     * @param listener called with the column clicked, on the event dispatch thread
+     *
+     * @post [ every click on the board calls listener with its column ]
+     */
+    void setColumnListener(IntConsumer listener) {
+        columnListener = listener;
+    }
+
+    /**
+     * <p>
+     * This shows player's token in a cell, repainting only that cell.
+     * </p>
+     *
+     * @param row the row of the cell, 0 at the bottom
+     * @param col the column of the cell
+     * @param player the player who now claims that cell
+     *
+     * @pre 0 {@code <=} row {@code <} rows and 0 {@code <=} col {@code <} cols
+     * @post [ the cell at row, col shows the character for player ]
+     */
+    void setMarker(int row, int col, char player) {
+        cells[row * cols + col] = player;
+        repaint(cellBounds(rows - row, col));
+    }
+
+    /**
+     * <p>
+     * This empties every cell, keeping the board and its size.
+     * </p>
+     *
+     * @post [ every cell is empty ]
+     */
+    void clear() {
+        Arrays.fill(cells, (char) 0);
+        repaint();
+    }
+
+    /**
+     * <p>
+     * This returns the column under an x coordinate of the board.
+     * </p>
+     *
+     * @param x the x coordinate, in pixels from the left edge
+     *
+     * @return the column at x
+     *
+     * @pre 0 {@code <=} x {@code <} getWidth()
+     * @post columnAt = [ the column whose cells cover x ]
+     */
+    int columnAt(int x) {
+        return Math.min(cols - 1, (int) ((long) x * cols / getWidth()));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+
+        //Only the cells inside the clip are drawn, so repainting one cell costs one cell
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        int firstCol = columnAt(Math.max(0, clip.x));
+        int lastCol = columnAt(Math.max(0, Math.min(getWidth() - 1, clip.x + clip.width - 1)));
+        int firstLine = lineAt(clip.y);
+        int lastLine = lineAt(clip.y + clip.height - 1);
+
+        Font font = getFont() == null ? new Font(Font.SANS_SERIF, Font.PLAIN, 12) : getFont();
+        int cellHeight = getHeight() / (rows + 1);
+        int cellWidth = getWidth() / cols;
+        g.setFont(font.deriveFont(Math.max(1f, Math.min(cellHeight, cellWidth) * 0.7f)));
+        FontMetrics metrics = g.getFontMetrics();
+
+        for (int line = firstLine; line <= lastLine; line++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                Rectangle cell = cellBounds(line, c);
+                String text;
+                if (line == 0) {
+                    //The top line holds the column arrows
+                    g.setColor(getBackground().darker());
+                    g.fillRect(cell.x, cell.y, cell.width, cell.height);
+                    text = ARROW;
+                }
+                else {
+                    char token = cells[(rows - line) * cols + c];
+                    text = token == 0 ? null : Character.toString(token);
+                }
+
+                g.setColor(Color.GRAY);
+                g.drawRect(cell.x, cell.y, cell.width - 1, cell.height - 1);
+                if (text != null) {
+                    g.setColor(Color.BLACK);
+                    int x = cell.x + (cell.width - metrics.stringWidth(text)) / 2;
+                    int y = cell.y + (cell.height - metrics.getHeight()) / 2 + metrics.getAscent();
+                    g.drawString(text, x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * This returns the line of cells under a y coordinate of the board, where line 0 is
+     * the column arrows and line rows is the bottom row of the board.
+     * </p>
+     *
+     * @param y the y coordinate, in pixels from the top edge
+     *
+     * @return the line at y, clamped to the board
+     *
+     * @post 0 {@code <=} lineAt {@code <=} rows
+     */
+    private int lineAt(int y) {
+        if (y <= 0 || getHeight() == 0) {
+            return 0;
+        }
+        return (int) Math.min(rows, (long) y * (rows + 1) / getHeight());
+    }
+
+    /**
+     * <p>
+     * This returns the rectangle a cell is drawn in. Edges are spread evenly so the
+     * cells fill the board even when its size isn't a multiple of the cell count.
+     * </p>
+     *
+     * @param line the line of the cell, 0 for the column arrows
+     * @param col the column of the cell
+     *
+     * @return the pixels the cell covers
+     *
+     * @pre 0 {@code <=} line {@code <=} rows and 0 {@code <=} col {@code <} cols
+     * @post [ cellBounds covers the pixels whose lineAt is line and columnAt is col ]
+     */
+    private Rectangle cellBounds(int line, int col) {
+        int left = edge(col, cols, getWidth());
+        int right = edge(col + 1, cols, getWidth());
+        int top = edge(line, rows + 1, getHeight());
+        int bottom = edge(line + 1, rows + 1, getHeight());
+        return new Rectangle(left, top, right - left, bottom - top);
+    }
+
+    /**
+     * <p>
+     * This returns where the i-th of n equal parts of a length starts.
+     * </p>
+     *
+     * @param i index of the part
+     * @param n number of parts
+     * @param length length being split
+     *
+     * @return the first pixel of part i
+     *
+     * @pre 0 {@code <=} i {@code <=} n and n {@code >} 0
+     * @post edge = [ the smallest x with x * n / length {@code >=} i ]
+     */
+    private static int edge(int i, int n, int length) {
+        return (int) (((long) i * length + n - 1) / n);
+    }
+}
@@ -2,35 +2,29 @@ package cpsc2150.extendedConnectX.views;
 
 import cpsc2150.extendedConnectX.controllers.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.*;
-import java.util.List;
 import javax.swing.*;
 
 /**
  * This class is the view of our Extended Connect X
- * our view has a message area, and a list of buttons
- * the buttons will be arranged in a {@code ROWS_IN_BUTTON_PANEL x COLUMNS_IN_BUTTON_PANEL} Grid
- * Players will use another set of buttons above the grid to select the column to place in
+ * our view has a message area, and a board below it
+ * the board draws a {@code rows x cols} grid of cells under a row of column arrows
+ * Players click a column, anywhere on the board, to place in it
+ * and a button at the bottom goes back to the settings
  * All events will be passed to the controller
  * <p>
  * You do not need to make any changes to this code, but you do need to understand much of what is happening
  *
  * @version 2.0
  */
-public class ConnectXView extends JFrame implements ActionListener {
+public class ConnectXView extends JFrame implements IConnectXView {
 
     private ConnectXController controller;
 
     private final JTextArea message;
-    private final List<JButton> buttons;
-    private final List<JButton> colButtons;
+    private final BoardCanvas board;
+    private final JButton settingsButton;
 
     private static final int LINES_IN_TEXT = 4, LINE_TEXT_LENGTHS = 20;
-    private static int ROWS_IN_BUTTON_PANEL;
-
-    private static int COLUMNS_IN_BUTTON_PANEL;
     private float fontSize = 40;
 
     /**
@@ -42,13 +36,11 @@ public class ConnectXView extends JFrame implements ActionListener {
      * @param col the number of columns you want in the Extended ConnectX grid
      *
      * @pre row {@code >} 0 and col {@code >} 0
-     * @post [ a functional screen with a row x col grid of buttons will be created ]
+     * @post [ a functional screen with a row x col board will be created ]
      */
     public ConnectXView(int row, int col) {
         //call super constructor to make JFrame
         super("Connect X Game");
-        ROWS_IN_BUTTON_PANEL = row;
-        COLUMNS_IN_BUTTON_PANEL = col;
 
         //create the widgets
         this.message = new JTextArea("It is X\'s turn. ", LINES_IN_TEXT, LINE_TEXT_LENGTHS);
@@ -59,66 +51,21 @@ public class ConnectXView extends JFrame implements ActionListener {
         this.message.setWrapStyleWord(true);
         message.setFont(message.getFont().deriveFont(fontSize));
 
-        //set up buttons to be used to select a column
-        colButtons = new ArrayList<>();
-        for (int i = 0; i < COLUMNS_IN_BUTTON_PANEL; i++) {
-            // text is down arrow character
-            JButton button = new JButton(Character.toString((char) 8595));
-            button.setPreferredSize(new Dimension(50, 50));
-            button.setMinimumSize(new Dimension(50, 50));
-            button.setMaximumSize(new Dimension(50, 50));
-            button.setFont(message.getFont().deriveFont(fontSize));
-            colButtons.add(button);
-        }
-
-        //Add buttons to our list of buttons
-        //These buttons will be used to create our grid for our game board
-        //Buttons would not generally be used like this, however its an easy way to get nice rectangular cells for our grid
-
-        buttons = new ArrayList<>();
-        for (int i = 0; i < ROWS_IN_BUTTON_PANEL * COLUMNS_IN_BUTTON_PANEL; i++) {
-            //these buttons are spaces on the board that start empty
-            JButton button = new JButton("");
-            button.setPreferredSize(new Dimension(50, 50));
-            button.setMinimumSize(new Dimension(50, 50));
-            button.setMaximumSize(new Dimension(50, 50));
-            button.setFont(message.getFont().deriveFont(fontSize));
-            //set enabled to false. we don't want players clicking these buttons
-            //we don't register as an observer because we only use these buttons to display our board
-            button.setEnabled(false);
-            buttons.add(button);
-        }
-
-        //create layout for the screen
-        this.setLayout(new GridLayout(ROWS_IN_BUTTON_PANEL + 2, 1));
-        
-        //add our message box on top
-        this.add(message);
-
-        //create a panel with buttons to select a column
-        JPanel colButtonPanel = new JPanel(new GridLayout(1, COLUMNS_IN_BUTTON_PANEL));
-        for (int i = 0; i < COLUMNS_IN_BUTTON_PANEL; i++) {
-            //register as an observer
-            colButtons.get(i).addActionListener(this);
-            //add to the panel
-            colButtonPanel.add(colButtons.get(i));
-        }
-        this.add(colButtonPanel);
-
-        //add our rows of buttons for the board
-        for (int i = 0; i < ROWS_IN_BUTTON_PANEL; i++) {
-            //create a panel to hold a row of buttons
-            JPanel buttonPanel = new JPanel(new GridLayout(1, COLUMNS_IN_BUTTON_PANEL));
-            for (int j = 0; j < COLUMNS_IN_BUTTON_PANEL; j++) {
-                //add a button in each column
-                int index = (i * COLUMNS_IN_BUTTON_PANEL) + j;
-                //add the screen as a listener
-                //buttons.get(index).addActionListener(this);
-                buttonPanel.add(buttons.get(index));
-            }
-            //row is complete, add it to out screen
-            this.add(buttonPanel);
-        }
+        //The board is one component that draws every cell, however many there are
+        board = new BoardCanvas(row, col);
+        board.setFont(message.getFont());
+        board.setColumnListener(this::columnClicked);
+
+        //button to leave this game and pick new settings
+        settingsButton = new JButton("New Settings");
+        settingsButton.setFont(message.getFont());
+        settingsButton.addActionListener(e -> controller.processSettingsClick());
+
+        //create layout for the screen, message box on top, the board filling the rest
+        this.setLayout(new BorderLayout());
+        this.add(message, BorderLayout.NORTH);
+        this.add(board, BorderLayout.CENTER);
+        this.add(settingsButton, BorderLayout.SOUTH);
 
         // Start the main application window --------------------------------
 
@@ -144,23 +91,23 @@ public class ConnectXView extends JFrame implements ActionListener {
      * @pre [ c is a valid controller for this view ]
      * @post this.controller = c
      */
+    @Override
     public void registerObserver(ConnectXController c) {
         this.controller = c;
     }
 
     /**
      * <p>
-     * This is the callback method that gets called as part of the 
+     * This is the callback method the board calls when it is clicked, as part of the
      * observer pattern.
      * </p> 
      * 
-     * @param event 
-     *      The event on the screen that is observed
+     * @param column 
+     *      The column that was clicked
      *
-     * @post [ button events will be sent to the controller ]
+     * @post [ the click will be sent to the controller ]
      */
-    @Override
-    public void actionPerformed(ActionEvent event) {
+    private void columnClicked(int column) {
         /*
          * Set cursor to indicate computation on-going; this matters only if
          * processing the event might take a noticeable amount of time as seen
@@ -168,24 +115,8 @@ public class ConnectXView extends JFrame implements ActionListener {
          */
         this.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
 
-        /*
-         * Determine which event has occurred that we are being notified of by
-         * this callback; in this case, the source of the event (i.e, the widget
-         * calling actionPerformed) is all we need because only buttons are
-         * involved here, so the event must be a button press; in each case,
-         * tell the controller to do whatever is needed to update the model and
-         * to refresh the view
-         */
-        Object source = event.getSource();
-
-        //is the source one of our buttons?
-        if (colButtons.contains(source)) {
-            //get row and columns
-            int column = colButtons.indexOf(source);
-
-            //call the controller event
-            controller.processButtonClick(column);
-        }
+        //call the controller event
+        controller.processButtonClick(column);
 
         /*
          * Set the cursor back to normal (because we changed it at the beginning
@@ -204,30 +135,58 @@ public class ConnectXView extends JFrame implements ActionListener {
      *
      * @post [ the this.message text = m ]
      */
+    @Override
     public void setMessage(String m) {
         message.setText(m);
     }
 
+    /**
+     * <p>
+     * This method clears every player token from the screen, so the same screen can show
+     * a new game.
+     * </p>
+     *
+     * @post [ every cell in the grid is empty ]
+     */
+    @Override
+    public void clearMarkers() {
+        board.clear();
+    }
+
     /**
      * <p>
      * This method displays a player token on the screen.
      * </p>
      * 
      * @param row
-     *      The row of the button in our grid
+     *      The row of the cell in our grid, 0 at the bottom
      * @param col
-     *      The column of the button in our grid
+     *      The column of the cell in our grid
      * @param player
-     *      The player who will now claim that button
+     *      The player who will now claim that cell
      *
-     * @pre 0 {@code <=} row {@code <} ROWS_IN_BUTTON_PANEL and 0 {@code <=} col {@code <=} COLUMNS_IN_BUTTON_PANEL
-     * @post [ the button at row, col will display the character for the player ]
+     * @pre 0 {@code <=} row {@code <} [ rows in the grid ] and 0 {@code <=} col {@code <} [ columns in the grid ]
+     * @post [ the cell at row, col will display the character for the player ]
      */
+    @Override
     public void setMarker(int row, int col, char player) {
-        //find index, remember the indexing starts in top left
-        int index = ((ROWS_IN_BUTTON_PANEL - (row + 1)) * COLUMNS_IN_BUTTON_PANEL) + col;
-        
-        //set the text of the button
-        buttons.get(index).setText(Character.toString(player));
+        //only the cell's own rectangle is repainted
+        board.setMarker(row, col, player);
+    }
+
+    @Override
+    public void runOnViewThread(Runnable r) {
+        SwingUtilities.invokeLater(r);
+    }
+
+    @Override
+    public void showSetup() {
+        //close the current screen
+        this.dispose();
+
+        //start back at the set up menu
+        SetupView screen = new SetupView();
+        SetupController controller = new SetupController(screen);
+        screen.registerObserver(controller);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package cpsc2150.extendedConnectX.views;
+
+import cpsc2150.extendedConnectX.controllers.*;
+
+/**
+ * This interface is what a {@link ConnectXController} needs from the screen a game is played on.
+ * The controller only calls these methods on the view thread, the thread the view sends its
+ * clicks on, and uses runOnViewThread to get there from the thread the game is played on.
+ * {@link ConnectXView} shows the game in a window and {@link TextView} reads and writes it as text.
+ *
+ * @version 2.0
+ */
+public interface IConnectXView {
+
+    /**
+     * <p>
+     * This method registers argument as observer/listener of this; this must be done first,
+     * before any other methods of this class are called.
+     * </p>
+     *
+     * @param c
+     *      Controller to register
+     *
+     * @pre [ c is a valid controller for this view ]
+     * @post [ clicks on this view are sent to c ]
+     */
+    public void registerObserver(ConnectXController c);
+
+    /**
+     * <p>
+     * This method displays a message to the players.
+     * </p>
+     *
+     * @param m
+     *      The message to display
+     *
+     * @post [ the message shown is m ]
+     */
+    public void setMessage(String m);
+
+    /**
+     * <p>
+     * This method displays a player token.
+     * </p>
+     *
+     * @param row
+     *      The row of the cell in our grid, 0 at the bottom
+     * @param col
+     *      The column of the cell in our grid
+     * @param player
+     *      The player who will now claim that cell
+     *
+     * @pre 0 {@code <=} row {@code <} [ rows in the grid ] and 0 {@code <=} col {@code <} [ columns in the grid ]
+     * @post [ the cell at row, col will display the character for the player ]
+     */
+    public void setMarker(int row, int col, char player);
+
+    /**
+     * <p>
+     * This method clears every player token, so the same view can show a new game.
+     * </p>
+     *
+     * @post [ every cell in the grid is empty ]
+     */
+    public void clearMarkers();
+
+    /**
+     * <p>
+     * This method runs r on the view thread, after everything posted before it.
+     * </p>
+     *
+     * @param r
+     *      The work to run
+     *
+     * @post [ r will run on the view thread ]
+     */
+    public void runOnViewThread(Runnable r);
+
+    /**
+     * <p>
+     * This method closes the view and goes back to where new games are set up.
+     * </p>
+     *
+     * @post [ this view is closed ]
+     */
+    public void showSetup();
+
+    /**
+     * <p>
+     * This method returns what the players are told to do to play again once a game is over.
+     * Unlike the other methods it can be called from any thread.
+     * </p>
+     *
+     * @return the rematch instructions for this view
+     *
+     * @post getRematchPrompt = [ how a rematch is started on this view ]
+     */
+    public default String getRematchPrompt() {
+        return "Click the board for a rematch.";
+    }
+}
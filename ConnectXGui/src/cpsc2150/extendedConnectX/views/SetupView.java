@@ -8,6 +8,8 @@ import javax.swing.*;
 
 /**
  * This class contains the code to create and layout the GUI for the setup screen.
+ * Besides the size of the game it has a box for each player to let the computer play
+ * that seat, and how long the computer thinks about a move.
  * It also is the observer of the submit button. When someone clicks on submit
  * the action performed method is called, which then calls the controller Object.
  * <p>
@@ -29,6 +31,10 @@ public class SetupView extends JFrame implements ActionListener {
     private JLabel numPlayersLbl;
     private JLabel numWinLbl;
     private JTextArea numWinTxt;
+    private JLabel computersLbl;
+    private JCheckBox[] computerCBs;
+    private JLabel thinkLbl;
+    private JTextArea thinkTxt;
     private float fontSize = 40;
     private SetupController controller;
 
@@ -50,6 +56,13 @@ public class SetupView extends JFrame implements ActionListener {
         numPlayersCB = new JComboBox<>(players);
         numWinLbl = new JLabel("Number to win: ");
         numWinTxt = new JTextArea(1, 10);
+        computersLbl = new JLabel("Computer Players: ");
+        computerCBs = new JCheckBox[ConnectXController.MAX_PLAYERS];
+        for (int i = 0; i < computerCBs.length; i++) {
+            computerCBs[i] = new JCheckBox(Character.toString(ConnectXController.getPlayerToken(i)));
+        }
+        thinkLbl = new JLabel("Computer Time (ms): ");
+        thinkTxt = new JTextArea(Long.toString(SetupController.DEFAULT_THINK_MILLIS), 1, 10);
 
         numRowsLbl.setFont(numRowsLbl.getFont().deriveFont(fontSize));
         numRowsTxt.setFont(numRowsLbl.getFont());
@@ -66,7 +79,16 @@ public class SetupView extends JFrame implements ActionListener {
         numWinLbl.setFont(numRowsLbl.getFont());
         numWinTxt.setFont(numRowsLbl.getFont());
 
-        this.setLayout(new GridLayout(6, 1));
+        computersLbl.setFont(numRowsLbl.getFont());
+        //ten boxes have to share half a row, so they get a smaller font
+        for (JCheckBox box : computerCBs) {
+            box.setFont(numRowsLbl.getFont().deriveFont(fontSize / 2));
+        }
+
+        thinkLbl.setFont(numRowsLbl.getFont());
+        thinkTxt.setFont(numRowsLbl.getFont());
+
+        this.setLayout(new GridLayout(8, 1));
         this.add(errorMessageLbl);
         JPanel rowsPanel = new JPanel(new GridLayout(1, 2));
         rowsPanel.add(numRowsLbl);
@@ -88,6 +110,23 @@ public class SetupView extends JFrame implements ActionListener {
         playersPanel.add(numPlayersCB);
         this.add(playersPanel);
 
+        JPanel computersPanel = new JPanel(new GridLayout(1, 2));
+        JPanel boxesPanel = new JPanel(new GridLayout(2, computerCBs.length / 2));
+        for (JCheckBox box : computerCBs) {
+            boxesPanel.add(box);
+        }
+        computersPanel.add(computersLbl);
+        computersPanel.add(boxesPanel);
+        this.add(computersPanel);
+        showPlayerSeats();
+
+        JPanel thinkPanel = new JPanel(new GridLayout(1, 2));
+        thinkPanel.add(thinkLbl);
+        thinkPanel.add(thinkTxt);
+        this.add(thinkPanel);
+
+        numPlayersCB.addActionListener(this);
+
         submitButton.addActionListener(this);
         this.add(submitButton);
 
@@ -133,6 +172,11 @@ public class SetupView extends JFrame implements ActionListener {
          */
         Object source = event.getSource();
 
+        //only the players in the game can be handed to the computer
+        if (source.equals(numPlayersCB)) {
+            showPlayerSeats();
+        }
+
         //is the source submit button
         if (source.equals(submitButton)) {
             errorMessageLbl.setText("");
@@ -141,6 +185,8 @@ public class SetupView extends JFrame implements ActionListener {
             int numCols = 0;
             int numPlayers = 0;
             int numWin = 0;
+            long thinkMillis = 0;
+            boolean[] computers = new boolean[computerCBs.length];
             // exceptions to check for wrong data types
             //all other validation handled by controller
             try {
@@ -161,10 +207,19 @@ public class SetupView extends JFrame implements ActionListener {
                 msg += "Wins must be a number";
             }
 
+            try {
+                thinkMillis = Long.parseLong(thinkTxt.getText());
+            } catch (NumberFormatException e) {
+                msg += "Computer time must be a number";
+            }
+
             numPlayers = numPlayersCB.getItemAt(numPlayersCB.getSelectedIndex());
+            for (int i = 0; i < computers.length; i++) {
+                computers[i] = computerCBs[i].isSelected();
+            }
 
             if (msg.equals("")) {
-                controller.processButtonClick(numRows, numCols, numPlayers, numWin);
+                controller.processButtonClick(numRows, numCols, numPlayers, numWin, computers, thinkMillis);
             } else {
                 errorMessageLbl.setText(msg);
             }
@@ -177,6 +232,21 @@ public class SetupView extends JFrame implements ActionListener {
         this.setCursor(Cursor.getDefaultCursor());
     }
 
+    /**
+     * <p>
+     * This method lets only the boxes of players in the game be checked.
+     * </p>
+     *
+     * @post [ the box of each seat is enabled iff the seat is in a game of the selected
+     * number of players ]
+     */
+    private void showPlayerSeats() {
+        int numPlayers = numPlayersCB.getItemAt(numPlayersCB.getSelectedIndex());
+        for (int i = 0; i < computerCBs.length; i++) {
+            computerCBs[i].setEnabled(i < numPlayers);
+        }
+    }
+
     /**
      * <p>
      * This method displays an error message on the screen.
@@ -0,0 +1,196 @@
+package cpsc2150.extendedConnectX.views;
+
+import cpsc2150.extendedConnectX.controllers.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This class is a text view of our Extended Connect X, for playing without a screen.
+ * Each line read is a column to place in, and q quits. Every token placed is written as
+ * a line with the player, row and column, followed by the message for the players.
+ * Once a game is over the next line other than q starts a rematch, whatever it says.
+ * When the players are typing at a console the whole board is written before each move too.
+ * <p>
+ * The thread that calls run is the view thread. It waits for the game to catch up after
+ * every line before reading the next one, so moves piped in are played in order and none
+ * are dropped.
+ *
+ * @version 2.0
+ */
+public class TextView implements IConnectXView {
+
+    private ConnectXController controller;
+
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private final boolean showBoard;
+    private final int rows;
+    private final int cols;
+    private final char[] cells;
+    private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+    private boolean open = true;
+
+    /**
+     * <p>
+     * This creates a text view for a game of the given size.
+     * </p>
+     *
+     * @param row the number of rows in the Extended ConnectX grid
+     * @param col the number of columns in the Extended ConnectX grid
+     * @param input where the moves are read from
+     * @param output where the game is written to
+     * @param board whether to write the whole board before each move
+     *
+     * @pre row {@code >} 0 and col {@code >} 0
+     * @post [ a text view of an empty row x col grid that reads input and writes output ]
+     */
+    public TextView(int row, int col, BufferedReader input, PrintWriter output, boolean board) {
+        rows = row;
+        cols = col;
+        cells = new char[row * col];
+        in = input;
+        out = output;
+        showBoard = board;
+    }
+
+    @Override
+    public void registerObserver(ConnectXController c) {
+        this.controller = c;
+    }
+
+    /**
+     * <p>
+     * This reads and plays moves until the input ends, q is read or the game is left.
+     * </p>
+     *
+     * @pre [ registerObserver has been called ]
+     * @post [ every move read before the end has been played and written out ]
+     *
+     * @throws IOException if the input can't be read
+     */
+    public void run() throws IOException {
+        waitForGame();
+        String line;
+        while (open && (line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.equals("q") || line.equals("quit")) {
+                break;
+            }
+            if (controller.isShowingGameOver()) {
+                //Like a click anywhere on the board, the column doesn't matter
+                controller.processButtonClick(0);
+                waitForGame();
+                continue;
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            int col;
+            try {
+                col = Integer.parseInt(line);
+            } catch (NumberFormatException e) {
+                col = -1;
+            }
+            if (col < 0 || col >= cols) {
+                out.println("Enter a column from 0 to " + (cols - 1) + ", or q to quit.");
+                out.flush();
+                continue;
+            }
+
+            controller.processButtonClick(col);
+            waitForGame();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void setMessage(String m) {
+        out.println(m);
+    }
+
+    @Override
+    public void setMarker(int row, int col, char player) {
+        cells[row * cols + col] = player;
+        out.print(player);
+        out.print(' ');
+        out.print(row);
+        out.print(' ');
+        out.println(col);
+    }
+
+    @Override
+    public void clearMarkers() {
+        Arrays.fill(cells, (char) 0);
+    }
+
+    @Override
+    public void runOnViewThread(Runnable r) {
+        tasks.add(r);
+    }
+
+    @Override
+    public String getRematchPrompt() {
+        return "Enter anything for a rematch, or q to quit.";
+    }
+
+    @Override
+    public void showSetup() {
+        //There is no setup screen without a window, so leaving the game ends the session
+        open = false;
+    }
+
+    /**
+     * <p>
+     * This runs the view's work until every move posted so far is played and written out.
+     * </p>
+     *
+     * @pre [ called on the view thread ]
+     * @post [ the output shows the game as it is now ]
+     */
+    private void waitForGame() {
+        boolean[] done = {false};
+        controller.afterPendingMoves(() -> done[0] = true);
+        try {
+            while (!done[0]) {
+                tasks.take().run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            open = false;
+        }
+
+        if (showBoard) {
+            printBoard();
+        }
+        out.flush();
+    }
+
+    /**
+     * <p>
+     * This writes the board in the same format as {@code IGameBoard.toString}.
+     * </p>
+     *
+     * @post [ out has the board appended ]
+     */
+    private void printBoard() {
+        StringBuilder sb = new StringBuilder((rows + 1) * (2 * cols + 2) + 2 * cols);
+        sb.append('|');
+        for (int j = 0; j < cols; j++) {
+            sb.append(j).append('|');
+        }
+        sb.append('\n');
+        for (int i = rows - 1; i >= 0; i--) {
+            for (int j = 0; j < cols; j++) {
+                char token = cells[i * cols + j];
+                sb.append('|').append(token == 0 ? ' ' : token);
+            }
+            sb.append('|').append('\n');
+        }
+        out.print(sb);
+    }
+}